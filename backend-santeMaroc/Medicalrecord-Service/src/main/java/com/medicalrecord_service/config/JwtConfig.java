@@ -23,20 +23,28 @@ public class JwtConfig {
     @Value("${jwt.secret:mySecretKey123456789012345678901234567890}")
     private String jwtSecret;
 
+    @Value("${jwt.decoder-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.decoder-cache.max-ttl-ms:300000}")
+    private long cacheMaxTtlMs;
+
     /**
      * Configure le JwtDecoder pour valider les tokens JWT avec HS256.
      * Utilise la clé secrète partagée configurée dans application.properties.
+     * Les tokens vérifiés sont mis en cache jusqu'à leur expiration (voir CachingJwtDecoder).
      * 
-     * @return JwtDecoder configuré pour HS256
+     * @return JwtDecoder configuré pour HS256, avec cache des tokens vérifiés
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder() {
         // Convertir la clé secrète en SecretKey pour HS256
         byte[] keyBytes = jwtSecret.getBytes(StandardCharsets.UTF_8);
         SecretKey secretKey = new SecretKeySpec(keyBytes, "HmacSHA256");
         
         // Créer le decoder avec la clé secrète
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey).build();
+        return new CachingJwtDecoder(decoder, cacheMaxSize, cacheMaxTtlMs);
     }
 }
 
@@ -5,6 +5,7 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -80,6 +81,37 @@ public class RabbitConfig {
         return factory;
     }
 
+    /**
+     * Configure la factory du listener d'ingestion par lots (MedicalRecordListener).
+     * Les messages sont regroupés jusqu'à batchSize, ou jusqu'à ce qu'aucun message n'arrive
+     * pendant la fenêtre ; chaque message est acquitté individuellement après l'insertion du lot.
+     * 
+     * @param connectionFactory La factory de connexion RabbitMQ
+     * @param batchSize Nombre maximum de messages par lot
+     * @param batchWindowMs Attente maximale d'un message avant de traiter un lot incomplet
+     * @param concurrency Nombre de consommateurs
+     * @return SimpleRabbitListenerContainerFactory en mode lot et acquittement manuel
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory medicalRecordBatchListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${medicalrecord.ingest.batch-size:200}") int batchSize,
+            @Value("${medicalrecord.ingest.batch-window-ms:200}") long batchWindowMs,
+            @Value("${medicalrecord.ingest.concurrency:1}") int concurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(batchWindowMs);
+        factory.setPrefetchCount(batchSize);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(concurrency);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
     // ==================== EXCHANGE ====================
     
     /**
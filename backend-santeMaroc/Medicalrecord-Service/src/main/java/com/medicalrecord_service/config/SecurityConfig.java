@@ -38,6 +38,9 @@ public class SecurityConfig {
                                 "/v3/api-docs/**"
                         ).permitAll()
 
+                        // Métriques d'exploitation (caches) - Réservées aux PROVIDER uniquement
+                        .requestMatchers("/api/records/read/jwt-cache/metrics", "/api/records/read/cache/metrics")
+                                .hasRole("PROVIDER")
                         // API sécurisée - Lecture accessible aux PATIENT et PROVIDER
                         .requestMatchers("/api/records/read/**").hasAnyRole("PATIENT", "PROVIDER")
                         // API sécurisée - Écriture réservée aux PROVIDER uniquement
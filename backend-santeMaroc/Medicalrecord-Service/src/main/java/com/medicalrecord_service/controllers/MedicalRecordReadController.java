@@ -1,17 +1,32 @@
 package com.medicalrecord_service.controllers;
 
+import com.medicalrecord_service.config.CachingJwtDecoder;
+import com.medicalrecord_service.dto.MedicalRecordSummary;
+import com.medicalrecord_service.dto.RecordPage;
+import com.medicalrecord_service.dto.VitalBucket;
 import com.medicalrecord_service.models.MedicalRecord;
+import com.medicalrecord_service.services.LatestRecordCache;
 import com.medicalrecord_service.services.MedicalRecordService;
+import com.medicalrecord_service.services.VitalSignService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Contrôleur REST pour les opérations de lecture sur les dossiers médicaux.
@@ -19,8 +34,14 @@ import java.util.List;
  * Ce contrôleur gère :
  * - La récupération des dossiers d'un patient spécifique
  * - La recherche avancée avec plusieurs critères (patient, provider, dates, limite)
+ * - L'export de l'historique complet d'un patient (NDJSON en streaming)
+ * - Les résumés de dossiers pour les chronologies (sans le contenu clinique)
  * 
- * Toutes les opérations sont en lecture seule et accessibles à tous les utilisateurs authentifiés.
+ * Les listes sont paginées par curseur : chaque page contient nextCursor,
+ * à passer dans le paramètre cursor pour obtenir la page suivante (null sur la dernière page).
+ * 
+ * Toutes les opérations sont en lecture seule et accessibles aux PATIENT et PROVIDER,
+ * sauf les métriques des caches, réservées aux PROVIDER.
  * 
  * @author MedicalRecord-Service Team
  * @version 1.0
@@ -31,27 +52,282 @@ import java.util.List;
 @Tag(name = "Medical Records - Read Operations", description = "API pour rechercher et lire des dossiers médicaux")
 public class MedicalRecordReadController {
 
+    // ==================== CONSTANTES ====================
+    
+    /** Type MIME du JSON délimité par des retours à la ligne */
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    
+    /** Taille du tampon d'écriture de l'export */
+    private static final int EXPORT_BUFFER_SIZE = 16 * 1024;
+
     // ==================== CHAMPS ====================
     
     /** Service pour la gestion des dossiers médicaux */
     private final MedicalRecordService service;
+    
+    /** Cache des dossiers récents, pour ses métriques */
+    private final LatestRecordCache latestRecordCache;
+    
+    /** Service des signes vitaux (séries temporelles) */
+    private final VitalSignService vitalSignService;
+    
+    /** Decoder JWT avec cache, pour ses métriques */
+    private final CachingJwtDecoder jwtDecoder;
 
     // ==================== ENDPOINTS DE RECHERCHE ====================
     
     /**
-     * Récupère tous les dossiers médicaux d'un patient.
+     * Récupère les dossiers médicaux d'un patient, page par page.
      * 
      * @param patientId L'ID du patient dont on veut récupérer les dossiers
-     * @return Liste des dossiers médicaux du patient
+     * @param cursor Le curseur de la page précédente (optionnel)
+     * @param size La taille de page (optionnel)
+     * @return Page des dossiers médicaux du patient, du plus récent au plus ancien
      */
     @GetMapping("/patient/{patientId}")
     @Operation(summary = "Récupérer les dossiers d'un patient", 
-               description = "Retourne tous les dossiers médicaux associés à un patient spécifique.")
-    public ResponseEntity<List<MedicalRecord>> getRecordsByPatient(
+               description = "Retourne les dossiers médicaux d'un patient, du plus récent au plus ancien, " +
+                           "paginés par curseur (nextCursor).")
+    public ResponseEntity<RecordPage<MedicalRecord>> getRecordsByPatient(
+            @Parameter(description = "ID du patient", required = true)
+            @PathVariable String patientId,
+            
+            @Parameter(description = "Curseur de la page précédente (nextCursor, optionnel)")
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Taille de page (optionnel, 20 par défaut, 100 maximum)")
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(service.getRecordsByPatientId(patientId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Récupère le dernier dossier médical d'un patient.
+     * 
+     * @param patientId L'ID du patient
+     * @return Le dossier le plus récent, sinon 404
+     */
+    @GetMapping("/patient/{patientId}/latest")
+    @Operation(summary = "Dernier dossier d'un patient", 
+               description = "Retourne le dossier médical le plus récent (date de visite) d'un patient.")
+    public ResponseEntity<MedicalRecord> getLatestRecordByPatient(
             @Parameter(description = "ID du patient", required = true)
             @PathVariable String patientId) {
-        List<MedicalRecord> records = service.getRecordsByPatientId(patientId);
-        return ResponseEntity.ok(records);
+        return service.getLatestRecordByPatientId(patientId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Récupère un dossier médical complet par son ID.
+     * 
+     * Accessible aux patients comme aux praticiens, contrairement à GET /api/records/{id}
+     * réservé aux praticiens.
+     * 
+     * @param id L'ID du dossier
+     * @return Le dossier, sinon 404
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Lire un dossier médical par ID", 
+               description = "Retourne un dossier médical complet par son ID (patients et praticiens).")
+    public ResponseEntity<MedicalRecord> getRecordById(
+            @Parameter(description = "ID du dossier", required = true)
+            @PathVariable String id) {
+        return service.getRecordById(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retourne l'évolution d'un signe vital d'un patient, agrégée par intervalles.
+     * 
+     * @param patientId L'ID du patient
+     * @param metric La métrique (systolic, diastolic, heartRate, glucose, weight, temperature, oxygenSaturation)
+     * @param from Date de début, incluse (optionnelle, format ISO)
+     * @param to Date de fin, exclue (optionnelle, format ISO)
+     * @param unit L'unité d'intervalle (hour, day, week, month, year)
+     * @param binSize Le nombre d'unités par intervalle
+     * @return Les intervalles (début, min, max, moyenne, nombre de mesures), du plus ancien au plus récent
+     */
+    @GetMapping("/patient/{patientId}/vitals/{metric}")
+    @Operation(summary = "Évolution d'un signe vital", 
+               description = "Retourne les mesures d'un signe vital extraites des dossiers du patient, agrégées " +
+                           "(min, max, moyenne) par intervalles de binSize unités. Période par défaut : un an. " +
+                           "Retourne 400 si la métrique ou la résolution est invalide, ou au-delà de 1000 intervalles.")
+    public ResponseEntity<List<VitalBucket>> getVitals(
+            @Parameter(description = "ID du patient", required = true)
+            @PathVariable String patientId,
+            
+            @Parameter(description = "Métrique (ex : weight, glucose, systolic)", required = true)
+            @PathVariable String metric,
+            
+            @Parameter(description = "Date de début (optionnel, format ISO)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            
+            @Parameter(description = "Date de fin (optionnel, format ISO)")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            
+            @Parameter(description = "Unité d'intervalle : hour, day, week, month, year")
+            @RequestParam(defaultValue = "day") String unit,
+            
+            @Parameter(description = "Nombre d'unités par intervalle")
+            @RequestParam(defaultValue = "1") int binSize) {
+        try {
+            return ResponseEntity.ok(vitalSignService.getBuckets(patientId, metric, from, to, unit, binSize));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retourne les métriques du cache des tokens JWT vérifiés.
+     * 
+     * Réservé aux PROVIDER uniquement.
+     * 
+     * @return Taille, succès, échecs, taux de succès et évictions
+     */
+    @GetMapping("/jwt-cache/metrics")
+    @PreAuthorize("hasRole('PROVIDER')")
+    @Operation(summary = "Métriques du cache des tokens JWT", 
+               description = "Retourne le nombre de tokens vérifiés en cache, les succès et échecs de lecture, " +
+                           "le taux de succès et les évictions. Nécessite le rôle PROVIDER.")
+    public ResponseEntity<Map<String, Object>> getJwtCacheMetrics() {
+        return ResponseEntity.ok(jwtDecoder.snapshot());
+    }
+
+    /**
+     * Retourne les métriques du cache des dossiers récents.
+     * 
+     * Réservé aux PROVIDER uniquement.
+     * 
+     * @return Taille, succès, échecs, taux de succès, évictions et invalidations
+     */
+    @GetMapping("/cache/metrics")
+    @PreAuthorize("hasRole('PROVIDER')")
+    @Operation(summary = "Métriques du cache des dossiers récents", 
+               description = "Retourne le nombre de patients en cache, les succès et échecs de lecture, " +
+                           "le taux de succès, les évictions et les invalidations. Nécessite le rôle PROVIDER.")
+    public ResponseEntity<Map<String, Object>> getCacheMetrics() {
+        return ResponseEntity.ok(latestRecordCache.snapshot());
+    }
+
+    /**
+     * Récupère les résumés des dossiers d'un patient, page par page (sans le contenu clinique).
+     * 
+     * @param patientId L'ID du patient
+     * @param cursor Le curseur de la page précédente (optionnel)
+     * @param size La taille de page (optionnel)
+     * @return Page des résumés, du plus récent au plus ancien
+     */
+    @GetMapping("/patient/{patientId}/summary")
+    @Operation(summary = "Chronologie des dossiers d'un patient", 
+               description = "Retourne les résumés des dossiers d'un patient (recordId, recordType, visitDate, " +
+                           "diagnosis, providerId), sans le contenu clinique, paginés par curseur. " +
+                           "Le dossier complet s'obtient via GET /api/records/read/{id}.")
+    public ResponseEntity<RecordPage<MedicalRecordSummary>> getRecordSummariesByPatient(
+            @Parameter(description = "ID du patient", required = true)
+            @PathVariable String patientId,
+            
+            @Parameter(description = "Curseur de la page précédente (nextCursor, optionnel)")
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Taille de page (optionnel, 20 par défaut, 100 maximum)")
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(service.getRecordSummariesByPatientId(patientId, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Recherche des résumés de dossiers (sans le contenu clinique), par exemple pour
+     * la vue d'ensemble d'un provider.
+     * 
+     * @param patientId L'ID du patient (optionnel)
+     * @param providerId L'ID du provider (optionnel)
+     * @param from Date de début pour le filtre (optionnel, format ISO)
+     * @param to Date de fin pour le filtre (optionnel, format ISO)
+     * @param cursor Le curseur de la page précédente (optionnel)
+     * @param size La taille de page (optionnel)
+     * @return Page des résumés correspondant aux critères
+     */
+    @GetMapping("/search/summary")
+    @Operation(summary = "Recherche de résumés de dossiers", 
+               description = "Mêmes critères que /search, mais retourne des résumés sans le contenu clinique.")
+    public ResponseEntity<RecordPage<MedicalRecordSummary>> searchRecordSummaries(
+            @Parameter(description = "ID du patient (optionnel)")
+            @RequestParam(required = false) String patientId,
+            
+            @Parameter(description = "ID du provider (optionnel)")
+            @RequestParam(required = false) String providerId,
+            
+            @Parameter(description = "Date de début (optionnel, format: yyyy-MM-ddTHH:mm:ss)")
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            
+            @Parameter(description = "Date de fin (optionnel, format: yyyy-MM-ddTHH:mm:ss)")
+            @RequestParam(required = false) 
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            
+            @Parameter(description = "Curseur de la page précédente (nextCursor, optionnel)")
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Taille de page (optionnel, 20 par défaut, 100 maximum)")
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(service.searchRecordSummaries(patientId, providerId, from, to, cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Exporte tout l'historique médical d'un patient en NDJSON (un dossier JSON par ligne).
+     * La réponse est écrite au fil de la lecture du curseur MongoDB, en mémoire constante.
+     * 
+     * @param patientId L'ID du patient
+     * @param gzip true pour compresser la réponse (Content-Encoding: gzip)
+     * @return Le flux NDJSON des dossiers, du plus ancien au plus récent
+     */
+    @GetMapping("/patient/{patientId}/export")
+    @Operation(summary = "Exporter l'historique médical d'un patient", 
+               description = "Exporte tous les dossiers médicaux d'un patient, du plus ancien au plus récent, " +
+                           "en JSON délimité par des retours à la ligne (application/x-ndjson), " +
+                           "optionnellement compressé en gzip. Adapté aux historiques de toute taille.")
+    public ResponseEntity<StreamingResponseBody> exportPatientRecords(
+            @Parameter(description = "ID du patient", required = true)
+            @PathVariable String patientId,
+            
+            @Parameter(description = "Compresser la réponse en gzip (optionnel)")
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        
+        StreamingResponseBody body = output -> {
+            OutputStream stream = gzip 
+                    ? new GZIPOutputStream(output, EXPORT_BUFFER_SIZE) 
+                    : new BufferedOutputStream(output, EXPORT_BUFFER_SIZE);
+            service.exportPatientRecords(patientId, stream);
+            if (stream instanceof GZIPOutputStream gzipStream) {
+                gzipStream.finish();
+            }
+            stream.flush();
+        };
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("medical-records-" + patientId + ".ndjson")
+                        .build()
+                        .toString());
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     /**
@@ -61,14 +337,16 @@ public class MedicalRecordReadController {
      * @param providerId L'ID du provider (optionnel)
      * @param from Date de début pour le filtre (optionnel, format ISO)
      * @param to Date de fin pour le filtre (optionnel, format ISO)
-     * @param limit Nombre maximum de résultats à retourner (optionnel)
-     * @return Liste des dossiers médicaux correspondant aux critères
+     * @param cursor Le curseur de la page précédente (optionnel)
+     * @param size La taille de page (optionnel)
+     * @param limit Ancien nom de size (optionnel)
+     * @return Page des dossiers médicaux correspondant aux critères
      */
     @GetMapping("/search")
     @Operation(summary = "Recherche avancée de dossiers médicaux", 
                description = "Recherche des dossiers médicaux avec plusieurs critères optionnels : " +
-                           "patient, provider, plage de dates, et limite de résultats.")
-    public ResponseEntity<List<MedicalRecord>> searchRecords(
+                           "patient, provider, plage de dates. Résultats paginés par curseur (nextCursor).")
+    public ResponseEntity<RecordPage<MedicalRecord>> searchRecords(
             @Parameter(description = "ID du patient (optionnel)")
             @RequestParam(required = false) String patientId,
             
@@ -83,10 +361,19 @@ public class MedicalRecordReadController {
             @RequestParam(required = false) 
             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
             
-            @Parameter(description = "Nombre maximum de résultats (optionnel)")
+            @Parameter(description = "Curseur de la page précédente (nextCursor, optionnel)")
+            @RequestParam(required = false) String cursor,
+            
+            @Parameter(description = "Taille de page (optionnel, 20 par défaut, 100 maximum)")
+            @RequestParam(required = false) Integer size,
+            
+            @Parameter(description = "Ancien nom du paramètre size (optionnel)")
             @RequestParam(required = false) Integer limit) {
-        
-        List<MedicalRecord> records = service.searchRecords(patientId, providerId, from, to, limit);
-        return ResponseEntity.ok(records);
+        try {
+            return ResponseEntity.ok(service.searchRecords(patientId, providerId, from, to, 
+                    cursor, size != null ? size : limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 }
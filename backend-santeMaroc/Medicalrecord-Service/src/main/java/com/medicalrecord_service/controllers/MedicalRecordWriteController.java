@@ -1,15 +1,22 @@
 package com.medicalrecord_service.controllers;
 
+import com.medicalrecord_service.dto.RecordPage;
+import com.medicalrecord_service.dto.RecordRevision;
+import com.medicalrecord_service.listeners.IngestMetrics;
 import com.medicalrecord_service.models.MedicalRecord;
 import com.medicalrecord_service.services.MedicalRecordService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -38,6 +45,9 @@ public class MedicalRecordWriteController {
     
     /** Service pour la gestion des dossiers médicaux */
     private final MedicalRecordService service;
+    
+    /** Métriques de l'ingestion par RabbitMQ */
+    private final IngestMetrics ingestMetrics;
 
     // ==================== ENDPOINTS CRUD ====================
     
@@ -58,25 +68,54 @@ public class MedicalRecordWriteController {
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('PROVIDER')")
     @Operation(summary = "Mettre à jour un dossier médical", 
-               description = "Met à jour un dossier médical existant. Nécessite le rôle PROVIDER.")
+               description = "Met à jour les champs fournis (diagnosis, recordType, clés de content) d'un dossier " +
+                           "existant. Si version est fournie et que le dossier a été modifié depuis, retourne 409. " +
+                           "Nécessite le rôle PROVIDER.")
     public ResponseEntity<MedicalRecord> updateRecord(
             @PathVariable String id, 
             @RequestBody MedicalRecord record) {
-        MedicalRecord updated = service.updateRecord(id, record);
-        return ResponseEntity.ok(updated);
+        try {
+            MedicalRecord updated = service.updateRecord(id, record);
+            return ResponseEntity.ok(updated);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
     }
 
     /**
-     * Récupère tous les dossiers médicaux.
+     * Récupère tous les dossiers médicaux, page par page.
      * 
-     * @return Liste de tous les dossiers médicaux
+     * @param cursor Le curseur de la page précédente (optionnel)
+     * @param size La taille de page (optionnel)
+     * @return Page de dossiers médicaux, du plus récent au plus ancien
      */
     @GetMapping
     @Operation(summary = "Récupérer tous les dossiers médicaux", 
-               description = "Retourne la liste complète de tous les dossiers médicaux.")
-    public ResponseEntity<List<MedicalRecord>> getAllRecords() {
-        List<MedicalRecord> records = service.getAllRecords();
-        return ResponseEntity.ok(records);
+               description = "Retourne tous les dossiers médicaux, du plus récent au plus ancien, " +
+                           "paginés par curseur (nextCursor).")
+    public ResponseEntity<RecordPage<MedicalRecord>> getAllRecords(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        try {
+            return ResponseEntity.ok(service.getAllRecords(cursor, size));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Retourne les métriques de l'ingestion des dossiers médicaux par RabbitMQ.
+     * 
+     * @return Lots traités, dossiers créés et en échec, débit (dossiers/s)
+     */
+    @GetMapping("/ingest/metrics")
+    @Operation(summary = "Métriques d'ingestion", 
+               description = "Retourne le nombre de lots traités, de dossiers créés et en échec, " +
+                           "la taille et la durée moyennes des lots, et le débit d'ingestion (dossiers/s).")
+    public ResponseEntity<Map<String, Object>> getIngestMetrics() {
+        return ResponseEntity.ok(ingestMetrics.snapshot());
     }
 
     /**
@@ -94,6 +133,31 @@ public class MedicalRecordWriteController {
                      .orElse(ResponseEntity.notFound().build());
     }
 
+    /**
+     * Reconstruit un dossier médical tel qu'il était à une date, depuis l'historique des versions.
+     * 
+     * @param id L'ID du dossier
+     * @param asOf La date (optionnelle, format ISO ; la version courante si absente)
+     * @return L'état du dossier à cette date, sinon 404 (409 si l'historique est incomplet à cette date)
+     */
+    @GetMapping("/{id}/history")
+    @Operation(summary = "Historique d'un dossier médical", 
+               description = "Retourne la version d'un dossier (diagnosis, recordType, content) en vigueur à la date asOf, " +
+                           "reconstruite depuis l'instantané le plus proche et les deltas suivants. " +
+                           "Retourne 404 si le dossier n'existait pas encore à cette date, " +
+                           "409 si l'historique est incomplet à cette date.")
+    public ResponseEntity<RecordRevision> getRecordHistory(
+            @PathVariable String id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime asOf) {
+        try {
+            return service.getRecordRevision(id, asOf)
+                    .map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     /**
      * Supprime un dossier médical.
      * 
@@ -0,0 +1,57 @@
+package com.medicalrecord_service.dto;
+
+import com.medicalrecord_service.models.MedicalRecord;
+
+import java.time.LocalDateTime;
+
+/**
+ * Résumé d'un dossier médical pour les chronologies (sans le contenu clinique).
+ * 
+ * Seuls ces champs sont lus dans MongoDB (projection) ; le dossier complet
+ * est récupéré à la demande via GET /api/records/read/{id}.
+ */
+public class MedicalRecordSummary {
+
+    /** Champs lus dans MongoDB pour construire un résumé */
+    public static final String[] FIELDS = {"patientId", "providerId", "recordType", "visitDate", "diagnosis"};
+
+    private String recordId;
+    private String patientId;
+    private String providerId;
+    private String recordType;
+    private LocalDateTime visitDate;
+    private String diagnosis;
+
+    // Constructeurs
+    public MedicalRecordSummary() {}
+
+    public static MedicalRecordSummary from(MedicalRecord record) {
+        MedicalRecordSummary summary = new MedicalRecordSummary();
+        summary.setRecordId(record.getRecordId());
+        summary.setPatientId(record.getPatientId());
+        summary.setProviderId(record.getProviderId());
+        summary.setRecordType(record.getRecordType());
+        summary.setVisitDate(record.getVisitDate());
+        summary.setDiagnosis(record.getDiagnosis());
+        return summary;
+    }
+
+    // Getters et Setters
+    public String getRecordId() { return recordId; }
+    public void setRecordId(String recordId) { this.recordId = recordId; }
+
+    public String getPatientId() { return patientId; }
+    public void setPatientId(String patientId) { this.patientId = patientId; }
+
+    public String getProviderId() { return providerId; }
+    public void setProviderId(String providerId) { this.providerId = providerId; }
+
+    public String getRecordType() { return recordType; }
+    public void setRecordType(String recordType) { this.recordType = recordType; }
+
+    public LocalDateTime getVisitDate() { return visitDate; }
+    public void setVisitDate(LocalDateTime visitDate) { this.visitDate = visitDate; }
+
+    public String getDiagnosis() { return diagnosis; }
+    public void setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; }
+}
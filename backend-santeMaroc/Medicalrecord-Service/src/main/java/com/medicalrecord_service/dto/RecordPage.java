@@ -0,0 +1,36 @@
+package com.medicalrecord_service.dto;
+
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur (keyset sur visitDate desc, recordId desc).
+ * 
+ * nextCursor est un jeton opaque à renvoyer tel quel pour obtenir la page suivante ;
+ * il vaut null sur la dernière page.
+ * 
+ * @param <T> Le type des éléments
+ */
+public class RecordPage<T> {
+    private List<T> items;
+    private int size;
+    private String nextCursor;
+
+    // Constructeurs
+    public RecordPage() {}
+
+    public RecordPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.size = items.size();
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters et Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,48 @@
+package com.medicalrecord_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * État d'un dossier médical à une version donnée, reconstruit depuis l'historique.
+ */
+public class RecordRevision {
+    private String recordId;
+    private long version;
+    private LocalDateTime recordedAt;
+    private String recordType;
+    private String diagnosis;
+    private Map<String, Object> content;
+
+    // Constructeurs
+    public RecordRevision() {}
+
+    public RecordRevision(String recordId, long version, LocalDateTime recordedAt,
+                          String recordType, String diagnosis, Map<String, Object> content) {
+        this.recordId = recordId;
+        this.version = version;
+        this.recordedAt = recordedAt;
+        this.recordType = recordType;
+        this.diagnosis = diagnosis;
+        this.content = content;
+    }
+
+    // Getters et Setters
+    public String getRecordId() { return recordId; }
+    public void setRecordId(String recordId) { this.recordId = recordId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+
+    public String getRecordType() { return recordType; }
+    public void setRecordType(String recordType) { this.recordType = recordType; }
+
+    public String getDiagnosis() { return diagnosis; }
+    public void setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; }
+
+    public Map<String, Object> getContent() { return content; }
+    public void setContent(Map<String, Object> content) { this.content = content; }
+}
@@ -0,0 +1,33 @@
+package com.medicalrecord_service.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agrégat des mesures d'un signe vital sur un intervalle de temps (début inclus).
+ */
+public class VitalBucket {
+    private LocalDateTime start;
+    private double min;
+    private double max;
+    private double avg;
+    private long count;
+
+    // Constructeurs
+    public VitalBucket() {}
+
+    // Getters et Setters
+    public LocalDateTime getStart() { return start; }
+    public void setStart(LocalDateTime start) { this.start = start; }
+
+    public double getMin() { return min; }
+    public void setMin(double min) { this.min = min; }
+
+    public double getMax() { return max; }
+    public void setMax(double max) { this.max = max; }
+
+    public double getAvg() { return avg; }
+    public void setAvg(double avg) { this.avg = avg; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
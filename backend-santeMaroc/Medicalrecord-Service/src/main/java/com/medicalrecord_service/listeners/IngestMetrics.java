@@ -0,0 +1,57 @@
+package com.medicalrecord_service.listeners;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques de l'ingestion des dossiers médicaux par lots (MedicalRecordListener).
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+@Component
+public class IngestMetrics {
+
+    private final long startedAt = System.nanoTime();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+
+    /**
+     * Enregistre le traitement d'un lot.
+     * 
+     * @param createdCount Nombre de dossiers créés
+     * @param failedCount Nombre de messages en échec (rejetés ou remis en queue)
+     * @param elapsedNanos Durée de traitement du lot
+     */
+    public void recordBatch(int createdCount, int failedCount, long elapsedNanos) {
+        batches.increment();
+        created.add(createdCount);
+        failed.add(failedCount);
+        processingNanos.add(elapsedNanos);
+    }
+
+    /**
+     * @return Les compteurs et débits depuis le démarrage
+     */
+    public Map<String, Object> snapshot() {
+        long batchCount = batches.sum();
+        long createdCount = created.sum();
+        double elapsedSeconds = Math.max(System.nanoTime() - startedAt, 1) / 1e9;
+        double busySeconds = processingNanos.sum() / 1e9;
+        
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("batches", batchCount);
+        snapshot.put("recordsCreated", createdCount);
+        snapshot.put("recordsFailed", failed.sum());
+        snapshot.put("avgBatchSize", batchCount > 0 ? (createdCount + failed.sum()) / (double) batchCount : 0.0);
+        snapshot.put("avgBatchMs", batchCount > 0 ? busySeconds * 1000 / batchCount : 0.0);
+        snapshot.put("recordsPerSecond", createdCount / elapsedSeconds);
+        snapshot.put("recordsPerBusySecond", busySeconds > 0 ? createdCount / busySeconds : 0.0);
+        return snapshot;
+    }
+}
@@ -4,17 +4,33 @@ import com.medicalrecord_service.config.RabbitConfig;
 import com.medicalrecord_service.dto.CreateMedicalRecordRequest;
 import com.medicalrecord_service.models.MedicalRecord;
 import com.medicalrecord_service.services.MedicalRecordService;
+import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 /**
  * Listener RabbitMQ pour recevoir les demandes de création de dossiers médicaux.
  * 
  * Ce listener écoute les messages provenant du Provider-Service et crée
  * automatiquement les dossiers médicaux dans la base de données.
  * 
+ * Les messages sont reçus par lots (taille et fenêtre configurables) et insérés
+ * en un seul insertMany. Chaque message est acquitté individuellement :
+ * - Dossier inséré (ou déjà présent) : ack
+ * - Message invalide : rejeté sans remise en queue
+ * - Échec d'insertion : remis en queue une fois, puis rejeté
+ * - MongoDB indisponible : tout le lot est remis en queue
+ * 
  * @author MedicalRecord-Service Team
  * @version 1.0
  */
@@ -24,31 +40,60 @@ import org.springframework.stereotype.Component;
 public class MedicalRecordListener {
 
     private final MedicalRecordService medicalRecordService;
+    private final IngestMetrics ingestMetrics;
 
     /**
-     * Écoute les demandes de création de dossiers médicaux depuis Provider-Service.
-     * Reçoit les messages via RabbitMQ et crée les dossiers médicaux.
+     * Écoute les demandes de création de dossiers médicaux depuis Provider-Service, par lots.
      * 
-     * @param request La demande de création de dossier médical
+     * @param messages Le lot de demandes de création (avec leurs headers AMQP)
+     * @param channel Le canal, pour l'acquittement manuel
      */
-    @RabbitListener(queues = RabbitConfig.MEDICAL_RECORD_CREATE_QUEUE)
-    public void handleCreateMedicalRecord(CreateMedicalRecordRequest request) {
-        log.info("Réception d'une demande de création de dossier médical pour le patient : {}", 
-                request.getPatientId());
+    @RabbitListener(queues = RabbitConfig.MEDICAL_RECORD_CREATE_QUEUE, 
+                    containerFactory = "medicalRecordBatchListenerContainerFactory")
+    public void handleCreateMedicalRecords(List<Message<CreateMedicalRecordRequest>> messages, Channel channel) {
+        long start = System.nanoTime();
+        log.debug("Réception d'un lot de {} demande(s) de création de dossier médical", messages.size());
         
+        List<MedicalRecord> records = new ArrayList<>(messages.size());
+        List<Message<CreateMedicalRecordRequest>> accepted = new ArrayList<>(messages.size());
+        int rejected = 0;
+        for (Message<CreateMedicalRecordRequest> message : messages) {
+            try {
+                records.add(convertToMedicalRecord(message.getPayload()));
+                accepted.add(message);
+            } catch (Exception e) {
+                log.error("❌ Demande de création de dossier médical invalide : {}", e.getMessage(), e);
+                reject(channel, message, false);
+                rejected++;
+            }
+        }
+        
+        Set<Integer> failed;
         try {
-            // Convertir le DTO en entité MedicalRecord
-            MedicalRecord record = convertToMedicalRecord(request);
-            
-            // Créer le dossier médical
-            MedicalRecord created = medicalRecordService.createRecord(record);
-            
-            log.info("✅ Dossier médical créé avec succès : {} pour le patient {}", 
-                    created.getRecordId(), created.getPatientId());
+            failed = new HashSet<>(medicalRecordService.createRecords(records));
         } catch (Exception e) {
-            log.error("❌ Erreur lors de la création du dossier médical pour le patient {} : {}", 
-                    request.getPatientId(), e.getMessage(), e);
+            log.error("❌ Erreur lors de l'insertion d'un lot de {} dossier(s) médical(aux) : {}", 
+                    records.size(), e.getMessage(), e);
+            accepted.forEach(message -> reject(channel, message, true));
+            ingestMetrics.recordBatch(0, messages.size(), System.nanoTime() - start);
+            return;
         }
+        
+        for (int i = 0; i < accepted.size(); i++) {
+            Message<CreateMedicalRecordRequest> message = accepted.get(i);
+            if (failed.contains(i)) {
+                Boolean redelivered = message.getHeaders().get(AmqpHeaders.REDELIVERED, Boolean.class);
+                log.error("❌ Échec de la création du dossier médical pour le patient {}", 
+                        message.getPayload().getPatientId());
+                reject(channel, message, !Boolean.TRUE.equals(redelivered));
+            } else {
+                ack(channel, message);
+            }
+        }
+        
+        int created = accepted.size() - failed.size();
+        ingestMetrics.recordBatch(created, rejected + failed.size(), System.nanoTime() - start);
+        log.info("✅ Lot traité : {} dossier(s) médical(aux) créé(s), {} échec(s)", created, rejected + failed.size());
     }
 
     /**
@@ -72,5 +117,25 @@ public class MedicalRecordListener {
                 java.time.LocalDateTime.now());
         return record;
     }
-}
 
+    private static void ack(Channel channel, Message<?> message) {
+        try {
+            channel.basicAck(deliveryTag(message), false);
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Acquittement du message impossible : {}", e.getMessage());
+        }
+    }
+
+    private static void reject(Channel channel, Message<?> message, boolean requeue) {
+        try {
+            channel.basicNack(deliveryTag(message), false, requeue);
+        } catch (IOException | RuntimeException e) {
+            log.warn("⚠️ Rejet du message impossible : {}", e.getMessage());
+        }
+    }
+
+    private static long deliveryTag(Message<?> message) {
+        Long tag = message.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class);
+        return tag != null ? tag : 0L;
+    }
+}
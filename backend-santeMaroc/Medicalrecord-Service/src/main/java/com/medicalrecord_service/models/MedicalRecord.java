@@ -1,12 +1,23 @@
 package com.medicalrecord_service.models;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.Map;
 
 @Document(collection = "medical_records")
+// Index des accès par patient, par provider et par patient + provider, triés par date de visite
+// (_id départage les dates égales pour la pagination par curseur)
+@CompoundIndexes({
+    @CompoundIndex(name = "visit_id_idx", def = "{'visitDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "patient_visit_id_idx", def = "{'patientId': 1, 'visitDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "provider_visit_id_idx", def = "{'providerId': 1, 'visitDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "patient_provider_visit_id_idx", def = "{'patientId': 1, 'providerId': 1, 'visitDate': -1, '_id': -1}")
+})
 public class MedicalRecord {
     @Id
     private String recordId;
@@ -18,6 +29,9 @@ public class MedicalRecord {
     private Map<String, Object> content;
     private LocalDateTime createdAt = LocalDateTime.now();
     private LocalDateTime updatedAt = LocalDateTime.now();
+    // Verrouillage optimiste : incrémentée à chaque mise à jour (absente des dossiers antérieurs)
+    @Version
+    private Long version;
 
     // Constructeurs
     public MedicalRecord() {}
@@ -49,4 +63,7 @@ public class MedicalRecord {
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
@@ -0,0 +1,97 @@
+package com.medicalrecord_service.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Version d'un dossier médical dans l'historique (append-only).
+ * 
+ * Une version est soit un instantané (snapshot, content complet), soit un delta
+ * (patch, opérations JSON Patch entre le content de la version précédente et celui-ci).
+ * diagnosis et recordType, courts, sont conservés entiers dans chaque version.
+ */
+@Document(collection = "medical_record_versions")
+// Recherche de la version à une date et de l'instantané le plus proche
+@CompoundIndex(name = "record_version_idx", def = "{'recordId': 1, 'version': 1}", unique = true)
+public class RecordVersion {
+    // recordId:version, pour qu'une même version ne soit enregistrée qu'une fois
+    @Id
+    private String id;
+    private String recordId;
+    private long version;
+    private LocalDateTime recordedAt;
+    private String recordType;
+    private String diagnosis;
+    private boolean snapshot;
+    private Map<String, Object> content;
+    private List<PatchOperation> patch;
+
+    // Constructeurs
+    public RecordVersion() {}
+
+    public static String idOf(String recordId, long version) {
+        return recordId + ":" + version;
+    }
+
+    // Getters et Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRecordId() { return recordId; }
+    public void setRecordId(String recordId) { this.recordId = recordId; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public LocalDateTime getRecordedAt() { return recordedAt; }
+    public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+
+    public String getRecordType() { return recordType; }
+    public void setRecordType(String recordType) { this.recordType = recordType; }
+
+    public String getDiagnosis() { return diagnosis; }
+    public void setDiagnosis(String diagnosis) { this.diagnosis = diagnosis; }
+
+    public boolean isSnapshot() { return snapshot; }
+    public void setSnapshot(boolean snapshot) { this.snapshot = snapshot; }
+
+    public Map<String, Object> getContent() { return content; }
+    public void setContent(Map<String, Object> content) { this.content = content; }
+
+    public List<PatchOperation> getPatch() { return patch; }
+    public void setPatch(List<PatchOperation> patch) { this.patch = patch; }
+
+    /**
+     * Opération JSON Patch (RFC 6902) sur une clé de premier niveau de content :
+     * add, remove ou replace, avec le chemin "/clé" (JSON Pointer).
+     */
+    public static class PatchOperation {
+        private String op;
+        private String path;
+        private Object value;
+
+        // Constructeurs
+        public PatchOperation() {}
+
+        public PatchOperation(String op, String path, Object value) {
+            this.op = op;
+            this.path = path;
+            this.value = value;
+        }
+
+        // Getters et Setters
+        public String getOp() { return op; }
+        public void setOp(String op) { this.op = op; }
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public Object getValue() { return value; }
+        public void setValue(Object value) { this.value = value; }
+    }
+}
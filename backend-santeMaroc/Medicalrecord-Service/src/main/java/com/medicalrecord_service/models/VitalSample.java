@@ -0,0 +1,68 @@
+package com.medicalrecord_service.models;
+
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.TimeSeries;
+import org.springframework.data.mongodb.core.timeseries.Granularity;
+
+import java.time.LocalDateTime;
+
+/**
+ * Mesure d'un signe vital extraite du content d'un dossier médical.
+ * 
+ * Stockée dans une collection time-series : MongoDB regroupe les mesures d'une même série
+ * (meta : patient + métrique) par intervalles de temps, ce qui rend les agrégations compactes.
+ */
+@Document(collection = "patient_vitals")
+@TimeSeries(timeField = "timestamp", metaField = "meta", granularity = Granularity.HOURS)
+public class VitalSample {
+    private LocalDateTime timestamp;
+    private Series meta;
+    private double value;
+    private String recordId;
+
+    // Constructeurs
+    public VitalSample() {}
+
+    public VitalSample(String patientId, String metric, LocalDateTime timestamp, double value, String recordId) {
+        this.meta = new Series(patientId, metric);
+        this.timestamp = timestamp;
+        this.value = value;
+        this.recordId = recordId;
+    }
+
+    // Getters et Setters
+    public LocalDateTime getTimestamp() { return timestamp; }
+    public void setTimestamp(LocalDateTime timestamp) { this.timestamp = timestamp; }
+
+    public Series getMeta() { return meta; }
+    public void setMeta(Series meta) { this.meta = meta; }
+
+    public double getValue() { return value; }
+    public void setValue(double value) { this.value = value; }
+
+    public String getRecordId() { return recordId; }
+    public void setRecordId(String recordId) { this.recordId = recordId; }
+
+    /**
+     * Série d'une mesure : un patient et une métrique.
+     */
+    public static class Series {
+        private String patientId;
+        private String metric;
+
+        // Constructeurs
+        public Series() {}
+
+        public Series(String patientId, String metric) {
+            this.patientId = patientId;
+            this.metric = metric;
+        }
+
+        // Getters et Setters
+        public String getPatientId() { return patientId; }
+        public void setPatientId(String patientId) { this.patientId = patientId; }
+
+        public String getMetric() { return metric; }
+        public void setMetric(String metric) { this.metric = metric; }
+    }
+}
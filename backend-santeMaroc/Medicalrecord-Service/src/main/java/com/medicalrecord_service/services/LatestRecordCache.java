@@ -0,0 +1,190 @@
+package com.medicalrecord_service.services;
+
+import com.medicalrecord_service.dto.MedicalRecordSummary;
+import com.medicalrecord_service.dto.RecordPage;
+import com.medicalrecord_service.models.MedicalRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Cache read-through, par patient, des dossiers les plus récents :
+ * - Le dernier dossier complet (getLatestRecordByPatientId)
+ * - La première page des résumés (les N plus récents)
+ * 
+ * Borné en nombre de patients (éviction LRU) et en durée de vie. Les entrées sont invalidées
+ * par MedicalRecordService à chaque création, mise à jour ou suppression d'un dossier du patient ;
+ * la durée de vie borne l'obsolescence des écritures faites par une autre instance.
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class LatestRecordCache {
+
+    // ==================== CONFIGURATION ====================
+    
+    /** Nombre de résumés conservés par patient */
+    @Value("${medicalrecord.latest-cache.summaries:20}")
+    private int summaryCount;
+
+    @Value("${medicalrecord.latest-cache.ttl-ms:60000}")
+    private long ttlMs;
+
+    // ==================== CHAMPS ====================
+    
+    /**
+     * Entrées par patient, dans l'ordre d'accès (le plus ancien est évincé en premier).
+     * Une entrée sert aussi de jeton aux chargements en cours : une valeur chargée n'est mise
+     * en cache que si l'entrée du patient est toujours la même (ni invalidée, ni évincée, ni expirée).
+     */
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public LatestRecordCache(@Value("${medicalrecord.latest-cache.max-patients:10000}") int maxPatients) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxPatients) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // ==================== LECTURE ====================
+    
+    /**
+     * @return Le nombre de résumés conservés par patient (taille de page servie par le cache)
+     */
+    public int getSummaryCount() {
+        return summaryCount;
+    }
+
+    /**
+     * Retourne le dernier dossier du patient, depuis le cache ou en le chargeant.
+     * 
+     * @param patientId L'ID du patient
+     * @param loader Le chargement depuis MongoDB en cas d'absence
+     * @return Le dernier dossier, s'il existe
+     */
+    public Optional<MedicalRecord> getLatest(String patientId, Supplier<Optional<MedicalRecord>> loader) {
+        Entry entry = acquire(patientId);
+        Optional<MedicalRecord> cached = entry.latest;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Optional<MedicalRecord> latest = loader.get();
+        store(patientId, entry, e -> e.latest = latest);
+        return latest;
+    }
+
+    /**
+     * Retourne la première page des résumés du patient (summaryCount éléments au plus),
+     * depuis le cache ou en la chargeant.
+     * 
+     * @param patientId L'ID du patient
+     * @param loader Le chargement depuis MongoDB en cas d'absence
+     * @return La première page des résumés
+     */
+    public RecordPage<MedicalRecordSummary> getSummaries(String patientId, 
+                                                        Supplier<RecordPage<MedicalRecordSummary>> loader) {
+        Entry entry = acquire(patientId);
+        RecordPage<MedicalRecordSummary> cached = entry.summaries;
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        RecordPage<MedicalRecordSummary> summaries = loader.get();
+        store(patientId, entry, e -> e.summaries = summaries);
+        return summaries;
+    }
+
+    // ==================== INVALIDATION ====================
+    
+    /**
+     * Invalide l'entrée d'un patient (après une écriture sur l'un de ses dossiers).
+     * Les chargements en cours pour ce patient ne seront pas mis en cache ;
+     * ceux des autres patients ne sont pas affectés.
+     * 
+     * @param patientId L'ID du patient
+     */
+    public synchronized void invalidate(String patientId) {
+        if (patientId != null && entries.remove(patientId) != null) {
+            invalidations.increment();
+        }
+    }
+
+    // ==================== MÉTRIQUES ====================
+    
+    /**
+     * @return Taille, succès, échecs, taux de succès, évictions et invalidations
+     */
+    public synchronized Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("patients", entries.size());
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRatio", hitCount + missCount > 0 ? hitCount / (double) (hitCount + missCount) : 0.0);
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        return snapshot;
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    /**
+     * Retourne l'entrée valide du patient, en la créant (vide) si elle est absente ou expirée.
+     */
+    private synchronized Entry acquire(String patientId) {
+        Entry entry = entries.get(patientId);
+        if (entry == null || entry.expiresAt <= System.currentTimeMillis()) {
+            entry = new Entry(System.currentTimeMillis() + ttlMs);
+            entries.put(patientId, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Enregistre une valeur chargée dans l'entrée obtenue avant le chargement, sauf si celle-ci
+     * a été remplacée entre-temps (la valeur pourrait précéder une écriture sur ce patient).
+     */
+    private synchronized void store(String patientId, Entry entry, Consumer<Entry> update) {
+        if (entries.get(patientId) != entry) {
+            return;
+        }
+        update.accept(entry);
+    }
+
+    /**
+     * Entrée d'un patient. Les champs null n'ont pas encore été chargés.
+     */
+    private static final class Entry {
+        private final long expiresAt;
+        private volatile Optional<MedicalRecord> latest;
+        private volatile RecordPage<MedicalRecordSummary> summaries;
+
+        Entry(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+    }
+}
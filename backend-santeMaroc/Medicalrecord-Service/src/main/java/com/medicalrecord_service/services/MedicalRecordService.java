@@ -1,15 +1,41 @@
 package com.medicalrecord_service.services;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.medicalrecord_service.dto.MedicalRecordSummary;
+import com.medicalrecord_service.dto.RecordPage;
+import com.medicalrecord_service.dto.RecordRevision;
 import com.medicalrecord_service.models.MedicalRecord;
 import com.medicalrecord_service.repository.MedicalRecordRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.mongodb.bulk.BulkWriteError;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Service pour gérer les dossiers médicaux.
@@ -29,10 +55,48 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class MedicalRecordService {
 
+    // ==================== CONSTANTES ====================
+    
+    /** Taille de page par défaut des listes de dossiers */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    
+    /** Taille de page maximale des listes de dossiers */
+    public static final int MAX_PAGE_SIZE = 100;
+    
+    /** Ordre des listes paginées : date de visite décroissante, puis ID (départage stable) */
+    private static final Sort PAGE_SORT = Sort.by(Sort.Direction.DESC, "visitDate", "recordId");
+    
+    /** Nombre de documents lus par aller-retour du curseur MongoDB lors d'un export */
+    private static final int EXPORT_BATCH_SIZE = 100;
+    
+    /** Séparateur de lignes NDJSON */
+    private static final byte NEWLINE = '\n';
+    
+    /** Code d'erreur MongoDB d'une clé dupliquée */
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+    
+    /** Nombre de tentatives d'écriture d'une version dans l'historique */
+    private static final int HISTORY_WRITE_ATTEMPTS = 3;
+
     // ==================== CHAMPS ====================
     
     /** Repository MongoDB pour les opérations de persistance */
     private final MedicalRecordRepository repository;
+    
+    /** MongoTemplate pour les requêtes construites dynamiquement (recherche multicritère) */
+    private final MongoTemplate mongoTemplate;
+    
+    /** ObjectMapper de l'application, pour l'export JSON */
+    private final ObjectMapper objectMapper;
+    
+    /** Cache des dossiers les plus récents par patient (dernier dossier, première page de résumés) */
+    private final LatestRecordCache latestRecordCache;
+    
+    /** Historique des versions des dossiers */
+    private final RecordHistoryService recordHistoryService;
+    
+    /** Signes vitaux extraits du content des dossiers (collection time-series) */
+    private final VitalSignService vitalSignService;
 
     // ==================== MÉTHODES CRUD ====================
     
@@ -46,23 +110,11 @@ public class MedicalRecordService {
     public MedicalRecord createRecord(MedicalRecord record) {
         log.debug("Création d'un nouveau dossier médical pour le patient : {}", record.getPatientId());
         
-        // Générer un ID si non fourni
-        if (record.getRecordId() == null || record.getRecordId().isEmpty()) {
-            record.setRecordId(UUID.randomUUID().toString());
-            log.debug("ID généré pour le nouveau dossier : {}", record.getRecordId());
-        }
-        
-        // Initialiser la date de visite si non fournie
-        if (record.getVisitDate() == null) {
-            record.setVisitDate(LocalDateTime.now());
-        }
-        
-        // Initialiser les timestamps
-        LocalDateTime now = LocalDateTime.now();
-        record.setCreatedAt(now);
-        record.setUpdatedAt(now);
+        prepareForInsert(record);
         
         MedicalRecord saved = repository.save(record);
+        latestRecordCache.invalidate(saved.getPatientId());
+        vitalSignService.recordVitals(List.of(saved));
         log.info("Dossier médical créé avec succès : {} pour le patient {}", 
                 saved.getRecordId(), saved.getPatientId());
         
@@ -70,36 +122,138 @@ public class MedicalRecordService {
     }
 
     /**
-     * Met à jour un dossier médical existant.
+     * Crée plusieurs dossiers médicaux en un seul insertMany non ordonné.
+     * Un dossier déjà présent (même ID, message relivré par exemple) compte comme créé.
+     * 
+     * @param records Les dossiers médicaux à créer
+     * @return Les positions, dans la liste, des dossiers dont l'insertion a échoué
+     */
+    public List<Integer> createRecords(List<MedicalRecord> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+        records.forEach(this::prepareForInsert);
+        
+        List<Integer> failed = new ArrayList<>();
+        Set<Integer> notInserted = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MedicalRecord.class)
+                    .insert(records)
+                    .execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                notInserted.add(error.getIndex());
+                if (error.getCode() != DUPLICATE_KEY_ERROR) {
+                    failed.add(error.getIndex());
+                }
+            }
+        }
+        // Signes vitaux des seuls dossiers insérés (ceux d'un dossier déjà présent sont déjà enregistrés)
+        List<MedicalRecord> inserted = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            if (!notInserted.contains(i)) {
+                inserted.add(records.get(i));
+            }
+        }
+        vitalSignService.recordVitals(inserted);
+        records.stream()
+                .map(MedicalRecord::getPatientId)
+                .distinct()
+                .forEach(latestRecordCache::invalidate);
+        
+        log.info("Lot de dossiers médicaux créé : {} dossier(s), {} échec(s)", records.size(), failed.size());
+        return failed;
+    }
+
+    /**
+     * Met à jour un dossier médical existant, en une seule opération atomique (findAndModify).
+     * 
+     * Seuls les champs fournis sont modifiés ($set) : diagnosis, recordType et chacune des clés
+     * de content (une clé à null est supprimée). Les autres clés de content sont conservées.
+     * Si la version est fournie, la mise à jour n'est appliquée que si le dossier n'a pas été
+     * modifié depuis (verrouillage optimiste) ; la version est incrémentée à chaque mise à jour.
+     * L'état précédent est lu par la même opération, pour enregistrer la version dans l'historique.
      * 
      * @param id L'ID du dossier à mettre à jour
-     * @param record Les nouvelles données du dossier
+     * @param record Les champs à modifier, et la version lue par le client (optionnelle)
      * @return Le dossier mis à jour
+     * @throws IllegalArgumentException si une clé de content est invalide
+     * @throws OptimisticLockingFailureException si le dossier a été modifié depuis la version fournie
      * @throws RuntimeException si le dossier n'existe pas
      */
     public MedicalRecord updateRecord(String id, MedicalRecord record) {
         log.debug("Mise à jour du dossier médical : {}", id);
         
-        Optional<MedicalRecord> existingOpt = repository.findById(id);
-        if (existingOpt.isEmpty()) {
-            log.error("Tentative de mise à jour d'un dossier inexistant : {}", id);
-            throw new RuntimeException("Record not found with id: " + id);
+        Criteria criteria = Criteria.where("recordId").is(id);
+        if (record.getVersion() != null) {
+            criteria.and("version").is(record.getVersion());
         }
         
-        MedicalRecord existing = existingOpt.get();
+        // Mettre à jour uniquement les champs modifiables fournis
+        LocalDateTime now = LocalDateTime.now();
+        Update update = new Update()
+                .set("updatedAt", now)
+                .inc("version", 1);
+        if (record.getDiagnosis() != null) {
+            update.set("diagnosis", record.getDiagnosis());
+        }
+        if (record.getRecordType() != null) {
+            update.set("recordType", record.getRecordType());
+        }
+        if (record.getContent() != null) {
+            record.getContent().forEach((key, value) -> {
+                String path = "content." + requireValidContentKey(key);
+                if (value == null) {
+                    update.unset(path);
+                } else {
+                    update.set(path, value);
+                }
+            });
+        }
         
-        // Mettre à jour uniquement les champs modifiables
-        existing.setDiagnosis(record.getDiagnosis());
-        existing.setContent(record.getContent());
-        existing.setRecordType(record.getRecordType());
-        existing.setUpdatedAt(LocalDateTime.now());
+        MedicalRecord previous = mongoTemplate.findAndModify(new Query(criteria), update,
+                FindAndModifyOptions.options().returnNew(false), MedicalRecord.class);
+        if (previous == null) {
+            if (record.getVersion() != null && repository.existsById(id)) {
+                log.warn("⚠️ Conflit de mise à jour du dossier {} : version {} obsolète", id, record.getVersion());
+                throw new OptimisticLockingFailureException(
+                        "Record " + id + " was modified since version " + record.getVersion());
+            }
+            log.error("Tentative de mise à jour d'un dossier inexistant : {}", id);
+            throw new RuntimeException("Record not found with id: " + id);
+        }
         
-        MedicalRecord updated = repository.save(existing);
-        log.info("Dossier médical mis à jour avec succès : {}", id);
+        MedicalRecord updated = applyUpdate(previous, record, now);
+        latestRecordCache.invalidate(updated.getPatientId());
+        if (record.getContent() != null && record.getContent().keySet().stream().anyMatch(VitalMetric::isVitalKey)) {
+            vitalSignService.replaceVitals(updated);
+        }
+        recordHistory(previous, updated);
+        log.info("Dossier médical mis à jour avec succès : {} (version {})", id, updated.getVersion());
         
         return updated;
     }
 
+    /**
+     * Reconstruit un dossier médical tel qu'il était à une date, depuis l'historique des versions.
+     * 
+     * @param id L'ID du dossier
+     * @param asOf La date (null pour la version courante)
+     * @return L'état du dossier à cette date, vide s'il n'existait pas encore
+     * @throws IllegalStateException si une version manque dans l'historique avant cette date
+     */
+    public Optional<RecordRevision> getRecordRevision(String id, LocalDateTime asOf) {
+        log.debug("Reconstruction du dossier médical {} au {}", id, asOf);
+        // La version courante fait foi dès qu'elle est en vigueur à cette date,
+        // même si sa version n'a pas pu être enregistrée dans l'historique
+        Optional<MedicalRecord> current = repository.findById(id);
+        if (current.isPresent() && (asOf == null || current.get().getUpdatedAt() == null 
+                || !current.get().getUpdatedAt().isAfter(asOf))) {
+            return current.map(RecordHistoryService::revisionOf);
+        }
+        return recordHistoryService.revisionAt(id, asOf);
+    }
+
     /**
      * Récupère un dossier médical par son ID.
      * 
@@ -112,24 +266,54 @@ public class MedicalRecordService {
     }
 
     /**
-     * Récupère tous les dossiers médicaux.
+     * Récupère une page de tous les dossiers médicaux.
      * 
-     * @return Liste de tous les dossiers médicaux
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page (null pour la taille par défaut)
+     * @return La page de dossiers et le curseur de la page suivante
+     * @throws IllegalArgumentException si le curseur est invalide
      */
-    public List<MedicalRecord> getAllRecords() {
-        log.debug("Récupération de tous les dossiers médicaux");
-        return repository.findAll();
+    public RecordPage<MedicalRecord> getAllRecords(String cursor, Integer size) {
+        log.debug("Récupération d'une page de tous les dossiers médicaux");
+        return findPage(new Criteria(), cursor, size);
     }
 
     /**
-     * Récupère tous les dossiers médicaux d'un patient.
+     * Récupère une page des dossiers médicaux d'un patient.
      * 
      * @param patientId L'ID du patient
-     * @return Liste des dossiers médicaux du patient
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page (null pour la taille par défaut)
+     * @return La page de dossiers et le curseur de la page suivante
+     * @throws IllegalArgumentException si le curseur est invalide
      */
-    public List<MedicalRecord> getRecordsByPatientId(String patientId) {
+    public RecordPage<MedicalRecord> getRecordsByPatientId(String patientId, String cursor, Integer size) {
         log.debug("Récupération des dossiers médicaux pour le patient : {}", patientId);
-        return repository.findByPatientId(patientId);
+        return findPage(Criteria.where("patientId").is(patientId), cursor, size);
+    }
+
+    /**
+     * Récupère une page des résumés de dossiers d'un patient (sans le contenu clinique).
+     * Seuls les champs du résumé sont lus dans MongoDB.
+     * 
+     * @param patientId L'ID du patient
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page (null pour la taille par défaut)
+     * @return La page de résumés et le curseur de la page suivante
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public RecordPage<MedicalRecordSummary> getRecordSummariesByPatientId(String patientId, String cursor, Integer size) {
+        log.debug("Récupération des résumés de dossiers pour le patient : {}", patientId);
+        int pageSize = resolvePageSize(size);
+        if ((cursor == null || cursor.isEmpty()) && pageSize <= latestRecordCache.getSummaryCount()) {
+            // Première page : servie depuis les N résumés les plus récents mis en cache
+            RecordPage<MedicalRecordSummary> cached = latestRecordCache.getSummaries(patientId, 
+                    () -> findPage(Criteria.where("patientId").is(patientId), null, 
+                            latestRecordCache.getSummaryCount(), MedicalRecordSummary::from, MedicalRecordSummary.FIELDS));
+            return firstPage(cached, pageSize);
+        }
+        return findPage(Criteria.where("patientId").is(patientId), cursor, size, 
+                MedicalRecordSummary::from, MedicalRecordSummary.FIELDS);
     }
 
     /**
@@ -140,36 +324,90 @@ public class MedicalRecordService {
      */
     public Optional<MedicalRecord> getLatestRecordByPatientId(String patientId) {
         log.debug("Récupération du dernier dossier médical pour le patient : {}", patientId);
-        return repository.findFirstByPatientIdOrderByVisitDateDesc(patientId);
+        return latestRecordCache.getLatest(patientId, 
+                () -> repository.findFirstByPatientIdOrderByVisitDateDesc(patientId));
     }
 
     /**
      * Recherche des dossiers médicaux avec des critères multiples.
+     * Filtrage, tri (date de visite décroissante) et pagination sont exécutés par MongoDB
+     * en une seule requête : seuls les dossiers de la page sont lus.
      * 
      * @param patientId L'ID du patient (optionnel)
      * @param providerId L'ID du provider (optionnel)
      * @param from Date de début pour le filtre (optionnel)
      * @param to Date de fin pour le filtre (optionnel)
-     * @param limit Nombre maximum de résultats (optionnel)
-     * @return Liste des dossiers correspondant aux critères
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page (null pour la taille par défaut)
+     * @return La page de dossiers correspondant aux critères
+     * @throws IllegalArgumentException si le curseur est invalide
      */
-    public List<MedicalRecord> searchRecords(String patientId, String providerId,
-                                             LocalDateTime from, LocalDateTime to, Integer limit) {
-        log.debug("Recherche de dossiers médicaux - Patient: {}, Provider: {}, From: {}, To: {}, Limit: {}", 
-                patientId, providerId, from, to, limit);
+    public RecordPage<MedicalRecord> searchRecords(String patientId, String providerId,
+                                                   LocalDateTime from, LocalDateTime to,
+                                                   String cursor, Integer size) {
+        log.debug("Recherche de dossiers médicaux - Patient: {}, Provider: {}, From: {}, To: {}, Size: {}", 
+                patientId, providerId, from, to, size);
         
-        // Étape 1 : Récupérer les dossiers selon les critères patient/provider
-        List<MedicalRecord> result = fetchRecordsByCriteria(patientId, providerId);
+        RecordPage<MedicalRecord> result = findPage(buildSearchCriteria(patientId, providerId, from, to), cursor, size);
         
-        // Étape 2 : Filtrer par date si nécessaire
-        result = filterByDateRange(result, from, to);
+        log.info("Recherche terminée : {} dossier(s) trouvé(s)", result.getSize());
         
-        // Étape 3 : Limiter le nombre de résultats si nécessaire
-        result = applyLimit(result, limit);
+        return result;
+    }
+
+    /**
+     * Recherche des résumés de dossiers (sans le contenu clinique), avec les mêmes critères
+     * que searchRecords. Seuls les champs du résumé sont lus dans MongoDB.
+     * 
+     * @param patientId L'ID du patient (optionnel)
+     * @param providerId L'ID du provider (optionnel)
+     * @param from Date de début pour le filtre (optionnel)
+     * @param to Date de fin pour le filtre (optionnel)
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page (null pour la taille par défaut)
+     * @return La page de résumés correspondant aux critères
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public RecordPage<MedicalRecordSummary> searchRecordSummaries(String patientId, String providerId,
+                                                                  LocalDateTime from, LocalDateTime to,
+                                                                  String cursor, Integer size) {
+        return findPage(buildSearchCriteria(patientId, providerId, from, to), cursor, size, 
+                MedicalRecordSummary::from, MedicalRecordSummary.FIELDS);
+    }
+
+    /**
+     * Exporte tout l'historique d'un patient en JSON délimité par des retours à la ligne (NDJSON),
+     * du plus ancien au plus récent.
+     * 
+     * Les dossiers sont lus par un curseur MongoDB et écrits un à un : la mémoire utilisée
+     * ne dépend pas de la taille de l'historique, et un client lent ralentit la lecture
+     * (l'écriture bloque tant que le client n'a pas consommé les données).
+     * 
+     * @param patientId L'ID du patient
+     * @param output Le flux de sortie (non fermé par cette méthode)
+     * @return Le nombre de dossiers exportés
+     * @throws IOException si l'écriture échoue (client déconnecté par exemple)
+     */
+    public long exportPatientRecords(String patientId, OutputStream output) throws IOException {
+        log.debug("Export des dossiers médicaux du patient : {}", patientId);
         
-        log.info("Recherche terminée : {} dossier(s) trouvé(s)", result.size());
+        Query query = new Query(Criteria.where("patientId").is(patientId))
+                .with(Sort.by(Sort.Direction.ASC, "visitDate", "recordId"))
+                .cursorBatchSize(EXPORT_BATCH_SIZE);
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
         
-        return result;
+        long count = 0;
+        try (Stream<MedicalRecord> records = mongoTemplate.stream(query, MedicalRecord.class)) {
+            Iterator<MedicalRecord> iterator = records.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(output, iterator.next());
+                output.write(NEWLINE);
+                count++;
+            }
+        }
+        
+        log.info("Export terminé : {} dossier(s) pour le patient {}", count, patientId);
+        return count;
     }
 
     /**
@@ -179,72 +417,205 @@ public class MedicalRecordService {
      */
     public void deleteRecord(String id) {
         log.debug("Suppression du dossier médical : {}", id);
-        repository.deleteById(id);
+        // findAndRemove retourne le patient du dossier supprimé, pour invalider son cache
+        Query query = new Query(Criteria.where("recordId").is(id));
+        query.fields().include("patientId");
+        MedicalRecord deleted = mongoTemplate.findAndRemove(query, MedicalRecord.class);
+        if (deleted != null) {
+            latestRecordCache.invalidate(deleted.getPatientId());
+            vitalSignService.deleteVitals(deleted.getPatientId(), id);
+        }
         log.info("Dossier médical supprimé avec succès : {}", id);
     }
 
     // ==================== MÉTHODES PRIVÉES ====================
     
     /**
-     * Récupère les dossiers selon les critères patient/provider.
+     * Enregistre une mise à jour dans l'historique, avec de nouvelles tentatives : les versions
+     * déjà écrites sont ignorées, une tentative répétée est donc sans effet de bord.
      * 
-     * @param patientId L'ID du patient (optionnel)
-     * @param providerId L'ID du provider (optionnel)
-     * @return Liste des dossiers correspondant aux critères
+     * Si toutes les tentatives échouent, la mise à jour reste appliquée : la mise à jour suivante
+     * enregistre un instantané de l'état manquant, et les dates antérieures restent signalées
+     * comme non reconstructibles (409) plutôt que reconstruites à tort.
      */
-    private List<MedicalRecord> fetchRecordsByCriteria(String patientId, String providerId) {
-        if (patientId != null && providerId != null) {
-            // Recherche par patient ET provider
-            return repository.findByPatientIdAndProviderId(patientId, providerId);
-        } else if (patientId != null) {
-            // Recherche par patient uniquement
-            return repository.findByPatientId(patientId);
-        } else if (providerId != null) {
-            // Recherche par provider uniquement
-            return repository.findByProviderId(providerId);
-        } else {
-            // Aucun critère : retourner tous les dossiers
-            return repository.findAll();
+    private void recordHistory(MedicalRecord previous, MedicalRecord updated) {
+        for (int attempt = 1; attempt <= HISTORY_WRITE_ATTEMPTS; attempt++) {
+            try {
+                recordHistoryService.recordUpdate(previous, updated);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == HISTORY_WRITE_ATTEMPTS) {
+                    log.error("❌ Version {} du dossier {} non enregistrée dans l'historique après {} tentatives : {}", 
+                            updated.getVersion(), updated.getRecordId(), attempt, e.getMessage());
+                } else {
+                    log.warn("⚠️ Écriture de la version {} du dossier {} dans l'historique échouée (tentative {}) : {}", 
+                            updated.getVersion(), updated.getRecordId(), attempt, e.getMessage());
+                }
+            }
         }
     }
 
     /**
-     * Filtre les dossiers par plage de dates.
+     * Prépare un nouveau dossier avant insertion.
+     * Génère un ID si non fourni et initialise les dates.
      * 
-     * @param records La liste de dossiers à filtrer
-     * @param from Date de début (optionnel)
-     * @param to Date de fin (optionnel)
-     * @return Liste filtrée des dossiers
+     * @param record Le dossier médical à créer
      */
-    private List<MedicalRecord> filterByDateRange(List<MedicalRecord> records, 
-                                                   LocalDateTime from, LocalDateTime to) {
-        if (from == null && to == null) {
-            // Pas de filtre de date
-            return records;
+    private void prepareForInsert(MedicalRecord record) {
+        // Générer un ID si non fourni
+        if (record.getRecordId() == null || record.getRecordId().isEmpty()) {
+            record.setRecordId(UUID.randomUUID().toString());
+            log.debug("ID généré pour le nouveau dossier : {}", record.getRecordId());
+        }
+        
+        // Initialiser la date de visite si non fournie
+        if (record.getVisitDate() == null) {
+            record.setVisitDate(LocalDateTime.now());
         }
         
-        return records.stream()
-                .filter(record -> {
-                    LocalDateTime visitDate = record.getVisitDate();
-                    boolean afterFrom = from == null || !visitDate.isBefore(from);
-                    boolean beforeTo = to == null || !visitDate.isAfter(to);
-                    return afterFrom && beforeTo;
-                })
-                .toList();
+        // Initialiser les timestamps
+        LocalDateTime now = LocalDateTime.now();
+        record.setCreatedAt(now);
+        record.setUpdatedAt(now);
+    }
+    
+    /**
+     * Lit une page de dossiers complets après le curseur.
+     */
+    private RecordPage<MedicalRecord> findPage(Criteria criteria, String cursor, Integer size) {
+        return findPage(criteria, cursor, size, Function.identity());
     }
 
     /**
-     * Limite le nombre de résultats retournés.
+     * Lit une page de dossiers après le curseur, dans l'ordre (visitDate desc, recordId desc).
+     * Un dossier de plus que la taille de page est lu pour savoir s'il existe une page suivante.
      * 
-     * @param records La liste de dossiers à limiter
-     * @param limit Le nombre maximum de résultats (optionnel)
-     * @return Liste limitée des dossiers
+     * @param criteria Les critères de filtrage
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @param size La taille de page demandée
+     * @param mapper La conversion de chaque dossier lu
+     * @param fields Les seuls champs à lire (projection), ou aucun pour le document complet
+     * @return La page de dossiers convertis
      */
-    private List<MedicalRecord> applyLimit(List<MedicalRecord> records, Integer limit) {
-        if (limit == null || limit <= 0 || records.size() <= limit) {
-            return records;
+    private <T> RecordPage<T> findPage(Criteria criteria, String cursor, Integer size,
+                                       Function<MedicalRecord, T> mapper, String... fields) {
+        int pageSize = resolvePageSize(size);
+        Criteria pageCriteria = cursor == null || cursor.isEmpty()
+                ? criteria
+                : new Criteria().andOperator(criteria, RecordCursor.decode(cursor).toCriteria());
+        
+        Query query = new Query(pageCriteria)
+                .with(PAGE_SORT)
+                .limit(pageSize + 1);
+        if (fields.length > 0) {
+            // L'ID et la date de visite sont toujours lus : ils forment le curseur
+            query.fields().include(fields).include("visitDate");
         }
+        List<MedicalRecord> records = mongoTemplate.find(query, MedicalRecord.class);
         
-        return records.subList(0, limit);
+        String nextCursor = null;
+        if (records.size() > pageSize) {
+            records = records.subList(0, pageSize);
+            nextCursor = RecordCursor.after(records.get(pageSize - 1)).encode();
+        }
+        return new RecordPage<>(records.stream().map(mapper).toList(), nextCursor);
+    }
+    
+    /**
+     * Applique en mémoire au dossier précédent la mise à jour faite par findAndModify.
+     * 
+     * @param previous Le dossier avant la mise à jour
+     * @param changes Les champs modifiés
+     * @param updatedAt La date de mise à jour
+     * @return Le dossier après la mise à jour
+     */
+    private static MedicalRecord applyUpdate(MedicalRecord previous, MedicalRecord changes, LocalDateTime updatedAt) {
+        MedicalRecord updated = new MedicalRecord();
+        updated.setRecordId(previous.getRecordId());
+        updated.setPatientId(previous.getPatientId());
+        updated.setProviderId(previous.getProviderId());
+        updated.setVisitDate(previous.getVisitDate());
+        updated.setCreatedAt(previous.getCreatedAt());
+        updated.setUpdatedAt(updatedAt);
+        updated.setVersion(previous.getVersion() == null ? 1 : previous.getVersion() + 1);
+        updated.setDiagnosis(changes.getDiagnosis() != null ? changes.getDiagnosis() : previous.getDiagnosis());
+        updated.setRecordType(changes.getRecordType() != null ? changes.getRecordType() : previous.getRecordType());
+        
+        Map<String, Object> content = previous.getContent() == null 
+                ? new LinkedHashMap<>() 
+                : new LinkedHashMap<>(previous.getContent());
+        if (changes.getContent() != null) {
+            changes.getContent().forEach((key, value) -> {
+                if (value == null) {
+                    content.remove(key);
+                } else {
+                    content.put(key, value);
+                }
+            });
+        }
+        updated.setContent(content);
+        return updated;
+    }
+    
+    /**
+     * Vérifie qu'une clé de content peut servir de chemin de mise à jour
+     * (un point créerait un sous-document, un $ serait interprété comme opérateur).
+     */
+    private static String requireValidContentKey(String key) {
+        if (key == null || key.isEmpty() || key.contains(".") || key.startsWith("$")) {
+            throw new IllegalArgumentException("Invalid content key: " + key);
+        }
+        return key;
+    }
+    
+    /**
+     * Extrait les pageSize premiers éléments d'une première page mise en cache.
+     * Le curseur suivant est celui du dernier élément servi, ou celui de la page en cache si elle est servie entière.
+     */
+    private static RecordPage<MedicalRecordSummary> firstPage(RecordPage<MedicalRecordSummary> cached, int pageSize) {
+        List<MedicalRecordSummary> items = cached.getItems();
+        if (items.size() <= pageSize) {
+            return cached;
+        }
+        MedicalRecordSummary last = items.get(pageSize - 1);
+        return new RecordPage<>(items.subList(0, pageSize), 
+                new RecordCursor(last.getVisitDate(), last.getRecordId()).encode());
+    }
+    
+    /**
+     * @return La taille de page effective (par défaut si absente, bornée à MAX_PAGE_SIZE)
+     */
+    private static int resolvePageSize(Integer size) {
+        return size == null || size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+    
+    /**
+     * Construit les critères de recherche. Les critères null sont ignorés.
+     * 
+     * @param patientId L'ID du patient (optionnel)
+     * @param providerId L'ID du provider (optionnel)
+     * @param from Date de début, incluse (optionnel)
+     * @param to Date de fin, incluse (optionnel)
+     * @return Les critères combinés (vides si aucun critère)
+     */
+    private Criteria buildSearchCriteria(String patientId, String providerId,
+                                         LocalDateTime from, LocalDateTime to) {
+        Criteria criteria = new Criteria();
+        if (patientId != null) {
+            criteria.and("patientId").is(patientId);
+        }
+        if (providerId != null) {
+            criteria.and("providerId").is(providerId);
+        }
+        if (from != null || to != null) {
+            Criteria visitDate = criteria.and("visitDate");
+            if (from != null) {
+                visitDate.gte(from);
+            }
+            if (to != null) {
+                visitDate.lte(to);
+            }
+        }
+        return criteria;
     }
 }
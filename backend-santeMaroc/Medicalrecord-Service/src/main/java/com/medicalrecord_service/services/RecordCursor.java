@@ -0,0 +1,81 @@
+package com.medicalrecord_service.services;
+
+import com.medicalrecord_service.models.MedicalRecord;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste de dossiers triée par visitDate desc puis recordId desc.
+ * 
+ * Encodée en un jeton opaque (Base64 URL) transmis aux clients comme curseur de pagination.
+ * La page suivante est lue directement depuis l'index, sans skip : son coût ne dépend pas
+ * de sa position dans l'historique.
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+public record RecordCursor(LocalDateTime visitDate, String recordId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * @param record Le dernier dossier d'une page
+     * @return Le curseur positionné après ce dossier
+     */
+    public static RecordCursor after(MedicalRecord record) {
+        return new RecordCursor(record.getVisitDate(), record.getRecordId());
+    }
+
+    /**
+     * @return Le jeton opaque transmis au client
+     */
+    public String encode() {
+        String raw = (visitDate != null ? visitDate.toString() : "") + SEPARATOR + recordId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un jeton reçu d'un client.
+     * 
+     * @param token Le jeton opaque
+     * @return Le curseur
+     * @throws IllegalArgumentException si le jeton est invalide
+     */
+    public static RecordCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator < 0 || separator == raw.length() - 1) {
+                throw new IllegalArgumentException("Curseur de pagination invalide");
+            }
+            String date = raw.substring(0, separator);
+            return new RecordCursor(date.isEmpty() ? null : LocalDateTime.parse(date), raw.substring(separator + 1));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Curseur de pagination invalide", e);
+        }
+    }
+
+    /**
+     * Critère des dossiers situés après ce curseur dans l'ordre (visitDate desc, recordId desc).
+     * Les dossiers sans date de visite sont triés en dernier.
+     * 
+     * @return Le critère keyset
+     */
+    public Criteria toCriteria() {
+        if (visitDate == null) {
+            return new Criteria().andOperator(
+                    Criteria.where("visitDate").is(null),
+                    Criteria.where("recordId").lt(recordId));
+        }
+        return new Criteria().orOperator(
+                Criteria.where("visitDate").lt(visitDate),
+                new Criteria().andOperator(
+                        Criteria.where("visitDate").is(visitDate),
+                        Criteria.where("recordId").lt(recordId)),
+                Criteria.where("visitDate").is(null));
+    }
+}
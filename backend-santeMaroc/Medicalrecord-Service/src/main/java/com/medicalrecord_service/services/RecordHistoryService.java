@@ -0,0 +1,268 @@
+package com.medicalrecord_service.services;
+
+import com.medicalrecord_service.dto.RecordRevision;
+import com.medicalrecord_service.models.MedicalRecord;
+import com.medicalrecord_service.models.RecordVersion;
+import com.medicalrecord_service.models.RecordVersion.PatchOperation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Service de l'historique des versions des dossiers médicaux (collection medical_record_versions).
+ * 
+ * Chaque mise à jour ajoute une version ; l'historique n'est jamais modifié ni supprimé :
+ * - Le plus souvent, un delta JSON Patch entre l'ancien et le nouveau content
+ * - Toutes les snapshotInterval versions, un instantané complet (borne la longueur des rejeux)
+ * - Un instantané de l'état précédent s'il manque (premier historique d'un dossier existant)
+ * 
+ * Le stockage croît avec la taille des modifications, pas avec celle des dossiers.
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RecordHistoryService {
+
+    // ==================== CONSTANTES ====================
+    
+    private static final String OP_ADD = "add";
+    private static final String OP_REMOVE = "remove";
+    private static final String OP_REPLACE = "replace";
+
+    // ==================== CHAMPS ====================
+    
+    private final MongoTemplate mongoTemplate;
+    
+    /** Nombre de versions entre deux instantanés complets */
+    @Value("${medicalrecord.history.snapshot-interval:10}")
+    private int snapshotInterval;
+
+    // ==================== ÉCRITURE ====================
+    
+    /**
+     * Enregistre une mise à jour dans l'historique.
+     * 
+     * @param before Le dossier avant la mise à jour
+     * @param after Le dossier après la mise à jour
+     */
+    public void recordUpdate(MedicalRecord before, MedicalRecord after) {
+        String recordId = after.getRecordId();
+        long version = versionOf(after);
+        long previous = versionOf(before);
+        
+        // Premier historique du dossier (ou version précédente perdue) : instantané de l'état précédent
+        if (!mongoTemplate.exists(Query.query(Criteria.where("id").is(RecordVersion.idOf(recordId, previous))), 
+                RecordVersion.class)) {
+            append(snapshot(before, previous));
+        }
+        
+        append(version % snapshotInterval == 0 
+                ? snapshot(after, version) 
+                : delta(before, after, version));
+    }
+
+    // ==================== LECTURE ====================
+    
+    /**
+     * Reconstruit le dossier tel qu'il était à une date : la dernière version enregistrée
+     * avant cette date, rejouée depuis l'instantané le plus proche.
+     * 
+     * @param recordId L'ID du dossier
+     * @param asOf La date (null pour la dernière version)
+     * @return L'état du dossier, vide si la date précède la première version
+     * @throws IllegalStateException si l'historique est incomplet entre l'instantané et la version
+     *         (écriture d'historique perdue) : l'état à cette date ne peut pas être reconstruit
+     */
+    public Optional<RecordRevision> revisionAt(String recordId, LocalDateTime asOf) {
+        Criteria criteria = Criteria.where("recordId").is(recordId);
+        if (asOf != null) {
+            criteria.and("recordedAt").lte(asOf);
+        }
+        RecordVersion target = mongoTemplate.findOne(
+                new Query(criteria).with(Sort.by(Sort.Direction.DESC, "version")), RecordVersion.class);
+        if (target == null) {
+            return Optional.empty();
+        }
+        
+        RecordVersion base = target.isSnapshot() ? target : mongoTemplate.findOne(
+                new Query(Criteria.where("recordId").is(recordId)
+                        .and("snapshot").is(true)
+                        .and("version").lte(target.getVersion()))
+                        .with(Sort.by(Sort.Direction.DESC, "version")),
+                RecordVersion.class);
+        if (base == null) {
+            throw new IllegalStateException("No snapshot before version " + target.getVersion() + " of record " + recordId);
+        }
+        
+        Map<String, Object> content = replay(base, 
+                versionsBetween(recordId, base.getVersion(), target.getVersion()), target.getVersion());
+        
+        return Optional.of(new RecordRevision(recordId, target.getVersion(), target.getRecordedAt(),
+                target.getRecordType(), target.getDiagnosis(), content));
+    }
+
+    /**
+     * @return L'état courant d'un dossier, sous forme de version
+     */
+    public static RecordRevision revisionOf(MedicalRecord record) {
+        return new RecordRevision(record.getRecordId(), versionOf(record), record.getUpdatedAt(),
+                record.getRecordType(), record.getDiagnosis(), record.getContent());
+    }
+
+    // ==================== REJEU ====================
+    
+    /**
+     * Rejoue les versions suivant un instantané jusqu'à la version cible.
+     * 
+     * @param base L'instantané de départ
+     * @param versions Les versions suivantes, par version croissante
+     * @param targetVersion La version à reconstruire
+     * @return Le content à la version cible
+     * @throws IllegalStateException si une version manque entre l'instantané et la cible
+     */
+    static Map<String, Object> replay(RecordVersion base, List<RecordVersion> versions, long targetVersion) {
+        Map<String, Object> content = copyOf(base.getContent());
+        long expected = base.getVersion() + 1;
+        for (RecordVersion entry : versions) {
+            if (entry.getVersion() != expected) {
+                break;
+            }
+            if (entry.isSnapshot()) {
+                content = copyOf(entry.getContent());
+            } else {
+                apply(content, entry.getPatch());
+            }
+            expected++;
+        }
+        if (expected <= targetVersion) {
+            throw new IllegalStateException("Missing version " + expected + " of record " + base.getRecordId());
+        }
+        return content;
+    }
+
+    /**
+     * Calcule le JSON Patch qui transforme before en after, clé de premier niveau par clé.
+     * Une valeur imbriquée modifiée est remplacée entière.
+     */
+    static List<PatchOperation> diff(Map<String, Object> before, Map<String, Object> after) {
+        List<PatchOperation> patch = new ArrayList<>();
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                patch.add(new PatchOperation(OP_REMOVE, pointer(key), null));
+            }
+        }
+        for (Map.Entry<String, Object> entry : after.entrySet()) {
+            if (!before.containsKey(entry.getKey())) {
+                patch.add(new PatchOperation(OP_ADD, pointer(entry.getKey()), entry.getValue()));
+            } else if (!Objects.equals(before.get(entry.getKey()), entry.getValue())) {
+                patch.add(new PatchOperation(OP_REPLACE, pointer(entry.getKey()), entry.getValue()));
+            }
+        }
+        return patch;
+    }
+
+    /**
+     * Applique un JSON Patch produit par diff sur content (modifié en place).
+     */
+    static void apply(Map<String, Object> content, List<PatchOperation> patch) {
+        if (patch == null) {
+            return;
+        }
+        for (PatchOperation operation : patch) {
+            String key = key(operation.getPath());
+            if (OP_REMOVE.equals(operation.getOp())) {
+                content.remove(key);
+            } else {
+                content.put(key, operation.getValue());
+            }
+        }
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    /**
+     * Ajoute une version. Une version déjà présente (mises à jour concurrentes) décrit
+     * le même état : elle est conservée telle quelle.
+     */
+    private void append(RecordVersion entry) {
+        try {
+            mongoTemplate.insert(entry);
+        } catch (DuplicateKeyException e) {
+            log.debug("Version {} déjà présente dans l'historique", entry.getId());
+        }
+    }
+
+    private List<RecordVersion> versionsBetween(String recordId, long fromExclusive, long toInclusive) {
+        if (fromExclusive >= toInclusive) {
+            return List.of();
+        }
+        return mongoTemplate.find(
+                new Query(Criteria.where("recordId").is(recordId)
+                        .and("version").gt(fromExclusive).lte(toInclusive))
+                        .with(Sort.by(Sort.Direction.ASC, "version")),
+                RecordVersion.class);
+    }
+
+    private static RecordVersion snapshot(MedicalRecord record, long version) {
+        RecordVersion entry = newVersion(record, version);
+        entry.setSnapshot(true);
+        entry.setContent(record.getContent());
+        return entry;
+    }
+
+    private static RecordVersion delta(MedicalRecord before, MedicalRecord after, long version) {
+        RecordVersion entry = newVersion(after, version);
+        entry.setPatch(diff(copyOf(before.getContent()), copyOf(after.getContent())));
+        return entry;
+    }
+
+    private static RecordVersion newVersion(MedicalRecord record, long version) {
+        RecordVersion entry = new RecordVersion();
+        entry.setId(RecordVersion.idOf(record.getRecordId(), version));
+        entry.setRecordId(record.getRecordId());
+        entry.setVersion(version);
+        entry.setRecordedAt(record.getUpdatedAt());
+        entry.setRecordType(record.getRecordType());
+        entry.setDiagnosis(record.getDiagnosis());
+        return entry;
+    }
+
+    /**
+     * JSON Pointer d'une clé de premier niveau ("~" et "/" échappés, RFC 6901).
+     */
+    private static String pointer(String key) {
+        return "/" + key.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static String key(String pointer) {
+        return pointer.substring(1).replace("~1", "/").replace("~0", "~");
+    }
+
+    private static Map<String, Object> copyOf(Map<String, Object> content) {
+        return content == null ? new LinkedHashMap<>() : new LinkedHashMap<>(content);
+    }
+
+    /**
+     * Version d'un dossier ; les dossiers jamais mis à jour depuis le verrouillage optimiste n'en ont pas (0).
+     */
+    private static long versionOf(MedicalRecord record) {
+        return record.getVersion() == null ? 0 : record.getVersion();
+    }
+}
@@ -0,0 +1,110 @@
+package com.medicalrecord_service.services;
+
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Signes vitaux reconnus dans le content des dossiers médicaux.
+ * 
+ * Les clés de content sont comparées sans casse, accents ni séparateurs
+ * ("Fréquence cardiaque", "frequence_cardiaque" et "heartRate" sont reconnues).
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+public enum VitalMetric {
+    SYSTOLIC("systolic", "systolic", "systolique", "pressionsystolique"),
+    DIASTOLIC("diastolic", "diastolic", "diastolique", "pressiondiastolique"),
+    HEART_RATE("heartRate", "heartrate", "pulse", "pouls", "frequencecardiaque", "fc"),
+    GLUCOSE("glucose", "glucose", "bloodglucose", "glycemie"),
+    WEIGHT("weight", "weight", "poids"),
+    TEMPERATURE("temperature", "temperature", "temp"),
+    OXYGEN_SATURATION("oxygenSaturation", "oxygensaturation", "spo2", "saturation");
+
+    /** Clés d'une tension artérielle "120/80" (ou {systolic, diastolic}) */
+    private static final String[] BLOOD_PRESSURE_KEYS = {
+            "bloodpressure", "bp", "tension", "tensionarterielle", "ta", "pressionarterielle"};
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
+    private static final Map<String, VitalMetric> BY_KEY = new HashMap<>();
+    private static final Map<String, VitalMetric> BY_NAME = new HashMap<>();
+
+    static {
+        for (VitalMetric metric : values()) {
+            for (String alias : metric.aliases) {
+                BY_KEY.put(alias, metric);
+            }
+            BY_NAME.put(metric.metricName.toLowerCase(Locale.ROOT), metric);
+        }
+    }
+
+    /** Nom de la métrique dans la collection time-series et l'API */
+    private final String metricName;
+    private final String[] aliases;
+
+    VitalMetric(String metricName, String... aliases) {
+        this.metricName = metricName;
+        this.aliases = aliases;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+
+    /**
+     * @param key Une clé de content
+     * @return La métrique correspondante, si la clé est reconnue
+     */
+    public static Optional<VitalMetric> fromKey(String key) {
+        return Optional.ofNullable(BY_KEY.get(normalize(key)));
+    }
+
+    /**
+     * @param key Une clé de content
+     * @return true si la clé désigne une tension artérielle (systolique et diastolique)
+     */
+    public static boolean isBloodPressure(String key) {
+        String normalized = normalize(key);
+        for (String bloodPressureKey : BLOOD_PRESSURE_KEYS) {
+            if (bloodPressureKey.equals(normalized)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param key Une clé de content
+     * @return true si la clé désigne un signe vital reconnu
+     */
+    public static boolean isVitalKey(String key) {
+        return isBloodPressure(key) || fromKey(key).isPresent();
+    }
+
+    /**
+     * @param name Le nom d'une métrique (sans casse)
+     * @return La métrique
+     * @throws IllegalArgumentException si la métrique est inconnue
+     */
+    public static VitalMetric fromName(String name) {
+        VitalMetric metric = name == null ? null : BY_NAME.get(name.toLowerCase(Locale.ROOT));
+        if (metric == null) {
+            throw new IllegalArgumentException("Unknown vital metric: " + name);
+        }
+        return metric;
+    }
+
+    private static String normalize(String key) {
+        if (key == null) {
+            return "";
+        }
+        String withoutAccents = DIACRITICS.matcher(Normalizer.normalize(key, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutAccents.toLowerCase(Locale.ROOT)).replaceAll("");
+    }
+}
@@ -0,0 +1,268 @@
+package com.medicalrecord_service.services;
+
+import com.medicalrecord_service.dto.VitalBucket;
+import com.medicalrecord_service.models.MedicalRecord;
+import com.medicalrecord_service.models.VitalSample;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service des signes vitaux des patients (collection time-series patient_vitals).
+ * 
+ * Ce service :
+ * - Extrait, à l'écriture d'un dossier, les signes vitaux reconnus de son content (VitalMetric)
+ * - Les enregistre comme mesures datées de la date de visite, par série (patient, métrique)
+ * - Agrège une série en intervalles (min, max, moyenne) pour les courbes d'évolution
+ * 
+ * Les erreurs d'extraction ou d'écriture des mesures sont journalisées sans faire échouer
+ * l'écriture du dossier.
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VitalSignService {
+
+    // ==================== CONSTANTES ====================
+    
+    /** Nombre maximum d'intervalles retournés par une requête */
+    public static final int MAX_BUCKETS = 1000;
+    
+    /** Période par défaut d'une requête sans date de début */
+    private static final int DEFAULT_PERIOD_YEARS = 1;
+    
+    /** Unités d'intervalle acceptées ($dateTrunc) */
+    private static final Map<String, ChronoUnit> UNITS = Map.of(
+            "hour", ChronoUnit.HOURS,
+            "day", ChronoUnit.DAYS,
+            "week", ChronoUnit.WEEKS,
+            "month", ChronoUnit.MONTHS,
+            "year", ChronoUnit.YEARS);
+    
+    private static final Pattern NUMBER = Pattern.compile("-?\\d+(?:[.,]\\d+)?");
+    private static final Pattern BLOOD_PRESSURE = Pattern.compile("(\\d+(?:[.,]\\d+)?)\\s*/\\s*(\\d+(?:[.,]\\d+)?)");
+
+    // ==================== CHAMPS ====================
+    
+    private final MongoTemplate mongoTemplate;
+
+    // ==================== INITIALISATION ====================
+    
+    /**
+     * Crée la collection time-series et son index (patient, métrique, date) si elle n'existe pas.
+     * Une collection créée implicitement par une insertion serait une collection classique.
+     */
+    @PostConstruct
+    public void createCollection() {
+        try {
+            if (!mongoTemplate.collectionExists(VitalSample.class)) {
+                mongoTemplate.createCollection(VitalSample.class);
+                log.info("✅ Collection time-series patient_vitals créée");
+            }
+            mongoTemplate.indexOps(VitalSample.class).ensureIndex(new Index()
+                    .on("meta.patientId", Sort.Direction.ASC)
+                    .on("meta.metric", Sort.Direction.ASC)
+                    .on("timestamp", Sort.Direction.ASC)
+                    .named("series_timestamp_idx"));
+        } catch (Exception e) {
+            log.warn("⚠️ Impossible de créer la collection patient_vitals : {}", e.getMessage());
+        }
+    }
+
+    // ==================== ÉCRITURE ====================
+    
+    /**
+     * Enregistre les signes vitaux de dossiers nouvellement créés.
+     * 
+     * @param records Les dossiers créés
+     */
+    public void recordVitals(Collection<MedicalRecord> records) {
+        try {
+            List<VitalSample> samples = new ArrayList<>();
+            records.forEach(record -> samples.addAll(extract(record)));
+            if (!samples.isEmpty()) {
+                mongoTemplate.insert(samples, VitalSample.class);
+                log.debug("{} mesure(s) de signes vitaux enregistrée(s)", samples.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Signes vitaux non enregistrés pour {} dossier(s) : {}", records.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Remplace les signes vitaux d'un dossier mis à jour.
+     * Si les anciennes mesures n'ont pas pu être supprimées, les nouvelles ne sont pas ajoutées
+     * (elles doubleraient la série).
+     * 
+     * @param record Le dossier après la mise à jour
+     */
+    public void replaceVitals(MedicalRecord record) {
+        if (deleteVitals(record.getPatientId(), record.getRecordId())) {
+            recordVitals(List.of(record));
+        }
+    }
+
+    /**
+     * Supprime les signes vitaux d'un dossier.
+     * La suppression filtre sur recordId, hors métadonnées : elle nécessite MongoDB 7.0 ou plus.
+     * 
+     * @param patientId L'ID du patient du dossier
+     * @param recordId L'ID du dossier
+     * @return true si la suppression a réussi
+     */
+    public boolean deleteVitals(String patientId, String recordId) {
+        try {
+            mongoTemplate.remove(Query.query(Criteria.where("meta.patientId").is(patientId)
+                    .and("recordId").is(recordId)), VitalSample.class);
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("⚠️ Signes vitaux du dossier {} non supprimés : {}", recordId, e.getMessage());
+            return false;
+        }
+    }
+
+    // ==================== LECTURE ====================
+    
+    /**
+     * Agrège une série de mesures en intervalles de binSize unités, du plus ancien au plus récent.
+     * Seuls les intervalles contenant au moins une mesure sont retournés.
+     * 
+     * @param patientId L'ID du patient
+     * @param metric Le nom de la métrique (voir VitalMetric)
+     * @param from Date de début, incluse (optionnelle, un an avant la fin par défaut)
+     * @param to Date de fin, exclue (optionnelle, maintenant par défaut)
+     * @param unit L'unité d'intervalle : hour, day, week, month ou year
+     * @param binSize Le nombre d'unités par intervalle
+     * @return Les intervalles (début, min, max, moyenne, nombre de mesures)
+     * @throws IllegalArgumentException si la métrique, l'unité ou la période est invalide
+     */
+    public List<VitalBucket> getBuckets(String patientId, String metric, LocalDateTime from, LocalDateTime to,
+                                        String unit, int binSize) {
+        VitalMetric vitalMetric = VitalMetric.fromName(metric);
+        ChronoUnit chronoUnit = UNITS.get(unit);
+        if (chronoUnit == null || binSize < 1) {
+            throw new IllegalArgumentException("Invalid resolution: " + binSize + " " + unit);
+        }
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusYears(DEFAULT_PERIOD_YEARS);
+        if (!start.isBefore(end) || chronoUnit.between(start, end) / binSize >= MAX_BUCKETS) {
+            throw new IllegalArgumentException("Invalid period or too many buckets (max " + MAX_BUCKETS + ")");
+        }
+        
+        // Les dates sont stockées en UTC à partir du fuseau de la JVM : les intervalles
+        // (jours, semaines...) sont découpés dans ce même fuseau
+        String timezone = ZoneId.systemDefault().getId();
+        AggregationOperation group = context -> new Document("$group", new Document()
+                .append("_id", new Document("$dateTrunc", new Document("date", "$timestamp")
+                        .append("unit", unit)
+                        .append("binSize", binSize)
+                        .append("timezone", timezone)))
+                .append("min", new Document("$min", "$value"))
+                .append("max", new Document("$max", "$value"))
+                .append("avg", new Document("$avg", "$value"))
+                .append("count", new Document("$sum", 1)));
+        AggregationOperation sort = context -> new Document("$sort", new Document("_id", 1));
+        AggregationOperation project = context -> new Document("$project", new Document("_id", 0)
+                .append("start", "$_id")
+                .append("min", 1)
+                .append("max", 1)
+                .append("avg", 1)
+                .append("count", 1));
+        
+        TypedAggregation<VitalSample> aggregation = Aggregation.newAggregation(VitalSample.class,
+                Aggregation.match(Criteria.where("meta.patientId").is(patientId)
+                        .and("meta.metric").is(vitalMetric.getMetricName())
+                        .and("timestamp").gte(start).lt(end)),
+                group, sort, project);
+        return mongoTemplate.aggregate(aggregation, VitalBucket.class).getMappedResults();
+    }
+
+    // ==================== EXTRACTION ====================
+    
+    /**
+     * Extrait les signes vitaux reconnus du content d'un dossier, datés de la date de visite.
+     * Les valeurs non numériques sont ignorées ; "72 kg" ou "36,8" sont acceptées.
+     * 
+     * @param record Le dossier
+     * @return Les mesures extraites
+     */
+    static List<VitalSample> extract(MedicalRecord record) {
+        List<VitalSample> samples = new ArrayList<>();
+        if (record.getContent() == null || record.getPatientId() == null || record.getVisitDate() == null) {
+            return samples;
+        }
+        record.getContent().forEach((key, value) -> {
+            if (value == null) {
+                return;
+            }
+            if (VitalMetric.isBloodPressure(key)) {
+                extractBloodPressure(record, value, samples);
+                return;
+            }
+            VitalMetric.fromKey(key).ifPresent(metric -> addSample(record, metric, parse(value), samples));
+        });
+        return samples;
+    }
+
+    /**
+     * Tension artérielle : "120/80" ou un objet {systolic, diastolic}.
+     */
+    private static void extractBloodPressure(MedicalRecord record, Object value, List<VitalSample> samples) {
+        if (value instanceof Map<?, ?> map) {
+            map.forEach((key, component) -> VitalMetric.fromKey(String.valueOf(key))
+                    .filter(metric -> metric == VitalMetric.SYSTOLIC || metric == VitalMetric.DIASTOLIC)
+                    .ifPresent(metric -> addSample(record, metric, parse(component), samples)));
+            return;
+        }
+        Matcher matcher = BLOOD_PRESSURE.matcher(String.valueOf(value));
+        if (matcher.find()) {
+            addSample(record, VitalMetric.SYSTOLIC, toDouble(matcher.group(1)), samples);
+            addSample(record, VitalMetric.DIASTOLIC, toDouble(matcher.group(2)), samples);
+        }
+    }
+
+    private static void addSample(MedicalRecord record, VitalMetric metric, Double value, List<VitalSample> samples) {
+        if (value != null) {
+            samples.add(new VitalSample(record.getPatientId(), metric.getMetricName(),
+                    record.getVisitDate(), value, record.getRecordId()));
+        }
+    }
+
+    private static Double parse(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value instanceof String text) {
+            Matcher matcher = NUMBER.matcher(text);
+            return matcher.find() ? toDouble(matcher.group()) : null;
+        }
+        return null;
+    }
+
+    private static Double toDouble(String number) {
+        return Double.parseDouble(number.replace(',', '.'));
+    }
+}
@@ -0,0 +1,171 @@
+package com.medicalrecord_service.repository;
+
+import com.medicalrecord_service.models.MedicalRecord;
+import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Vérification des plans d'exécution des requêtes principales sur medical_records.
+ * 
+ * Crée les index déclarés sur MedicalRecord dans un MongoDB jetable (Testcontainers),
+ * insère des dossiers, puis lance explain() sur chaque requête du repository, de la recherche
+ * et de la pagination. Échoue si un plan gagnant contient un COLLSCAN, ou un tri en mémoire (SORT)
+ * pour les requêtes dont l'ordre doit être fourni par l'index.
+ * 
+ * Exécuté par "mvn test" (Docker requis).
+ * 
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+@Testcontainers
+class MedicalRecordQueryPlanTest {
+
+    private static final String DATABASE = "medicalrecord_queryplan_check";
+    private static final int PATIENTS = 50;
+    private static final int RECORDS_PER_PATIENT = 40;
+
+    @Container
+    private static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private static MongoClient client;
+    private static MongoCollection<Document> collection;
+
+    @BeforeAll
+    static void setUp() {
+        client = MongoClients.create(MONGO.getReplicaSetUrl());
+        MongoTemplate template = new MongoTemplate(client, DATABASE);
+        createDeclaredIndexes(template);
+        insertSampleRecords(template);
+        collection = template.getCollection("medical_records");
+    }
+
+    @AfterAll
+    static void tearDown() {
+        client.close();
+    }
+
+    // ==================== REQUÊTES ====================
+    
+    /**
+     * Requêtes vérifiées, telles que générées par le repository, searchRecords et la pagination.
+     */
+    @TestFactory
+    Stream<DynamicTest> winningPlansUseIndexes() {
+        Document byVisitDateDesc = new Document("visitDate", -1);
+        Document byVisitDateAndIdDesc = new Document("visitDate", -1).append("_id", -1);
+        LocalDateTime now = LocalDateTime.now();
+        Document lastMonth = new Document("$gte", now.minusDays(30)).append("$lte", now);
+
+        return Stream.of(
+                check("findByPatientId", false, 
+                        collection.find(new Document("patientId", "patient-7"))),
+                check("findByProviderId", false, 
+                        collection.find(new Document("providerId", "provider-3"))),
+                check("findByPatientIdAndProviderId", false, collection.find(
+                        new Document("patientId", "patient-7").append("providerId", "provider-3"))),
+                check("findFirstByPatientIdOrderByVisitDate", true, collection
+                        .find(new Document("patientId", "patient-7"))
+                        .sort(byVisitDateDesc)
+                        .limit(1)),
+                check("searchRecords(patient, dates)", true, collection
+                        .find(new Document("patientId", "patient-7").append("visitDate", lastMonth))
+                        .sort(byVisitDateDesc)
+                        .limit(10)),
+                check("searchRecords(provider, dates)", true, collection
+                        .find(new Document("providerId", "provider-3").append("visitDate", lastMonth))
+                        .sort(byVisitDateDesc)
+                        .limit(10)),
+                check("page(patient, cursor)", false, collection
+                        .find(new Document("patientId", "patient-7").append("$or", List.of(
+                                new Document("visitDate", new Document("$lt", now.minusDays(70))),
+                                new Document("visitDate", now.minusDays(70)).append("_id", new Document("$lt", "record-7-10")),
+                                new Document("visitDate", null))))
+                        .sort(byVisitDateAndIdDesc)
+                        .limit(21)),
+                check("page(all)", true, collection
+                        .find(new Document())
+                        .sort(byVisitDateAndIdDesc)
+                        .limit(21)));
+    }
+
+    /**
+     * @param indexOrdered true si l'ordre demandé doit être fourni par l'index (pas de SORT en mémoire)
+     */
+    private static DynamicTest check(String name, boolean indexOrdered, FindIterable<Document> query) {
+        return DynamicTest.dynamicTest(name, () -> {
+            Document plan = query.explain().get("queryPlanner", Document.class);
+            List<String> stages = new ArrayList<>();
+            collectStages(plan.get("winningPlan"), stages);
+            String described = name + " : " + String.join(" <- ", stages);
+            
+            assertFalse(stages.contains("COLLSCAN"), "Parcours complet de la collection — " + described);
+            assertTrue(stages.contains("IXSCAN"), "Aucun index utilisé — " + described);
+            if (indexOrdered) {
+                assertFalse(stages.contains("SORT"), "Tri en mémoire — " + described);
+            }
+        });
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    private static void createDeclaredIndexes(MongoTemplate template) {
+        IndexOperations indexOps = template.indexOps(MedicalRecord.class);
+        new MongoPersistentEntityIndexResolver(template.getConverter().getMappingContext())
+                .resolveIndexFor(MedicalRecord.class)
+                .forEach(indexOps::ensureIndex);
+    }
+
+    private static void insertSampleRecords(MongoTemplate template) {
+        List<MedicalRecord> records = new ArrayList<>(PATIENTS * RECORDS_PER_PATIENT);
+        LocalDateTime now = LocalDateTime.now();
+        for (int patient = 0; patient < PATIENTS; patient++) {
+            for (int i = 0; i < RECORDS_PER_PATIENT; i++) {
+                MedicalRecord record = new MedicalRecord();
+                record.setRecordId("record-" + patient + "-" + i);
+                record.setPatientId("patient-" + patient);
+                record.setProviderId("provider-" + (patient + i) % 10);
+                record.setRecordType("CONSULTATION");
+                record.setVisitDate(now.minusDays(i * 7L));
+                record.setDiagnosis("Diagnostic " + i);
+                records.add(record);
+            }
+        }
+        template.insertAll(records);
+    }
+
+    /**
+     * Collecte récursivement les étapes d'un plan (inputStage, inputStages, queryPlan...).
+     */
+    private static void collectStages(Object node, List<String> stages) {
+        if (node instanceof Document document) {
+            Object stage = document.get("stage");
+            if (stage instanceof String name) {
+                stages.add(name);
+            }
+            document.values().forEach(value -> collectStages(value, stages));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages));
+        }
+    }
+}
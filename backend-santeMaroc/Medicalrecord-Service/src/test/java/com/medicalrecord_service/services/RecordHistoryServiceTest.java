@@ -0,0 +1,185 @@
+package com.medicalrecord_service.services;
+
+import com.medicalrecord_service.models.RecordVersion;
+import com.medicalrecord_service.models.RecordVersion.PatchOperation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests unitaires du calcul des deltas (diff), de leur application (apply)
+ * et du rejeu des versions (replay) de l'historique des dossiers.
+ *
+ * @author MedicalRecord-Service Team
+ * @version 1.0
+ */
+class RecordHistoryServiceTest {
+
+    // ==================== DIFF ====================
+
+    @Test
+    void diffOfIdenticalContentIsEmpty() {
+        Map<String, Object> content = content("weight", 72, "notes", "RAS");
+
+        assertTrue(RecordHistoryService.diff(content, new LinkedHashMap<>(content)).isEmpty());
+    }
+
+    @Test
+    void diffProducesAddRemoveAndReplace() {
+        Map<String, Object> before = content("weight", 72, "notes", "RAS");
+        Map<String, Object> after = content("weight", 74, "glucose", 1.1);
+
+        List<PatchOperation> patch = RecordHistoryService.diff(before, after);
+
+        assertEquals(3, patch.size());
+        assertOperation(patch.get(0), "remove", "/notes", null);
+        assertOperation(patch.get(1), "replace", "/weight", 74);
+        assertOperation(patch.get(2), "add", "/glucose", 1.1);
+    }
+
+    @Test
+    void diffReplacesModifiedNestedValueWhole() {
+        Map<String, Object> before = content("bloodPressure", content("systolic", 120, "diastolic", 80));
+        Map<String, Object> after = content("bloodPressure", content("systolic", 130, "diastolic", 80));
+
+        List<PatchOperation> patch = RecordHistoryService.diff(before, after);
+
+        assertEquals(1, patch.size());
+        assertOperation(patch.get(0), "replace", "/bloodPressure", content("systolic", 130, "diastolic", 80));
+    }
+
+    @Test
+    void diffEscapesPointerCharacters() {
+        List<PatchOperation> patch = RecordHistoryService.diff(content(), content("a/b~c", 1));
+
+        assertEquals("/a~1b~0c", patch.get(0).getPath());
+    }
+
+    // ==================== APPLY ====================
+
+    @Test
+    void applyOfDiffReproducesTarget() {
+        Map<String, Object> before = content("weight", 72, "notes", "RAS", "a/b~c", "x");
+        Map<String, Object> after = content("weight", 74, "glucose", 1.1, "a/b~c", "y");
+
+        Map<String, Object> result = new LinkedHashMap<>(before);
+        RecordHistoryService.apply(result, RecordHistoryService.diff(before, after));
+
+        assertEquals(after, result);
+    }
+
+    @Test
+    void applyOfNullPatchLeavesContentUnchanged() {
+        Map<String, Object> content = content("weight", 72);
+
+        RecordHistoryService.apply(content, null);
+
+        assertEquals(content("weight", 72), content);
+    }
+
+    // ==================== REPLAY ====================
+
+    @Test
+    void replayAppliesDeltasInOrder() {
+        Map<String, Object> v1 = content("weight", 72);
+        Map<String, Object> v2 = content("weight", 73, "notes", "RAS");
+        Map<String, Object> v3 = content("weight", 74);
+
+        List<RecordVersion> versions = List.of(delta(2, v1, v2), delta(3, v2, v3));
+
+        assertEquals(v2, RecordHistoryService.replay(snapshot(1, v1), versions.subList(0, 1), 2));
+        assertEquals(v3, RecordHistoryService.replay(snapshot(1, v1), versions, 3));
+    }
+
+    @Test
+    void replayOfSnapshotAloneReturnsCopy() {
+        Map<String, Object> v1 = content("weight", 72);
+        RecordVersion base = snapshot(1, v1);
+
+        Map<String, Object> result = RecordHistoryService.replay(base, List.of(), 1);
+        result.put("weight", 80);
+
+        assertEquals(content("weight", 72), base.getContent());
+    }
+
+    @Test
+    void replayRestartsFromIntermediateSnapshot() {
+        Map<String, Object> v1 = content("weight", 72);
+        Map<String, Object> v2 = content("weight", 73);
+        Map<String, Object> v3 = content("glucose", 1.1);
+
+        List<RecordVersion> versions = List.of(delta(2, v1, v2), snapshot(3, v3));
+
+        assertEquals(v3, RecordHistoryService.replay(snapshot(1, v1), versions, 3));
+    }
+
+    @Test
+    void replayFailsOnMissingVersion() {
+        Map<String, Object> v1 = content("weight", 72);
+        Map<String, Object> v2 = content("weight", 73);
+        Map<String, Object> v3 = content("weight", 74);
+
+        List<RecordVersion> versions = List.of(delta(3, v2, v3));
+
+        assertThrows(IllegalStateException.class, () -> RecordHistoryService.replay(snapshot(1, v1), versions, 3));
+    }
+
+    @Test
+    void replayFailsWhenLastVersionIsMissing() {
+        Map<String, Object> v1 = content("weight", 72);
+        Map<String, Object> v2 = content("weight", 73);
+
+        List<RecordVersion> versions = List.of(delta(2, v1, v2));
+
+        assertThrows(IllegalStateException.class, () -> RecordHistoryService.replay(snapshot(1, v1), versions, 3));
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+
+    private static void assertOperation(PatchOperation operation, String op, String path, Object value) {
+        assertEquals(op, operation.getOp());
+        assertEquals(path, operation.getPath());
+        if (value == null) {
+            assertNull(operation.getValue());
+        } else {
+            assertEquals(value, operation.getValue());
+        }
+    }
+
+    private static RecordVersion snapshot(long version, Map<String, Object> content) {
+        RecordVersion entry = version(version);
+        entry.setSnapshot(true);
+        entry.setContent(content);
+        return entry;
+    }
+
+    private static RecordVersion delta(long version, Map<String, Object> before, Map<String, Object> after) {
+        RecordVersion entry = version(version);
+        entry.setPatch(new ArrayList<>(RecordHistoryService.diff(before, after)));
+        return entry;
+    }
+
+    private static RecordVersion version(long version) {
+        RecordVersion entry = new RecordVersion();
+        entry.setId(RecordVersion.idOf("record-1", version));
+        entry.setRecordId("record-1");
+        entry.setVersion(version);
+        return entry;
+    }
+
+    private static Map<String, Object> content(Object... keyValues) {
+        Map<String, Object> content = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            content.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return content;
+    }
+}
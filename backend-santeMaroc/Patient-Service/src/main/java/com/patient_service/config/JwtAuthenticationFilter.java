@@ -1,10 +1,14 @@
 package com.patient_service.config;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,55 +17,106 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.patient_service.services.JwtService;
 import com.patient_service.services.PatientService;
+import com.patient_service.services.UserDetailsCache;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter{
-	@Autowired
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    @Autowired
     private JwtService jwtService;
-    
-	@Lazy
+
+    @Lazy
     @Autowired
     private PatientService patientService;
-    
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    // true : authentification construite depuis les claims du token, sans requête Mongo par requête HTTP
+    @Value("${security.jwt.claims-authentication.enabled:true}")
+    private boolean claimsAuthentication;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain
     ) throws ServletException, IOException {
-        
+
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
-        
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String jwt = authHeader.substring(7); // retirer "Bearer "
+        final Claims claims;
+        try {
+            // Un seul parsing par requête : signature et expiration vérifiées ici
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token JWT invalide : " + e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String userEmail = claims.getSubject();
+        final boolean fromClaims = claimsAuthentication && claims.get("role") != null;
+        if (fromClaims && !isOwnToken(claims)) {
+            // Token signé avec le secret partagé mais émis pour un autre service : requête non authentifiée
+            logger.debug("Token JWT refusé : rôle " + claims.get("role") + " ou patientId absent");
             filterChain.doFilter(request, response);
             return;
         }
-        
-        jwt = authHeader.substring(7);
-        userEmail = jwtService.extractUsername(jwt);
-        
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.patientService.loadUserByUsername(userEmail);
-            
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(
-                        new WebAuthenticationDetailsSource().buildDetails(request)
-                );
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        if (userEmail != null) {
+            // Les anciens tokens sans claim "role" passent par le chargement de l'utilisateur
+            AbstractAuthenticationToken authToken = fromClaims
+                    ? buildClaimsAuthentication(userEmail, claims)
+                    : buildUserAuthentication(userEmail);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
+
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Un token n'est accepté sur ses claims que s'il a été émis pour un patient de ce service :
+     * rôle PATIENT et claim patientId présent.
+     */
+    private boolean isOwnToken(Claims claims) {
+        String role = claims.get("role", String.class);
+        String id = claims.get("patientId", String.class);
+        return ("PATIENT".equals(role) || "ROLE_PATIENT".equals(role)) && id != null && !id.isBlank();
+    }
+
+    private AbstractAuthenticationToken buildClaimsAuthentication(String userEmail, Claims claims) {
+        String role = claims.get("role", String.class);
+        List<SimpleGrantedAuthority> authorities =
+                List.of(new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+        return new JwtClaimsAuthenticationToken(
+                userEmail,
+                claims.get("patientId", String.class),
+                authorities,
+                () -> userDetailsCache.get(userEmail, patientService::loadUserByUsername)
+        );
+    }
+
+    private AbstractAuthenticationToken buildUserAuthentication(String userEmail) {
+        UserDetails userDetails = patientService.loadUserByUsername(userEmail);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
 }
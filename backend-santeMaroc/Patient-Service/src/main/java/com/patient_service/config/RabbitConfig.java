@@ -18,6 +18,8 @@ public class RabbitConfig {
     public static final String PATIENT_EXCHANGE = "patient-exchange";
     public static final String PATIENT_STATUS_QUEUE = "patient.status.queue";
     public static final String PATIENT_STATUS_ROUTING_KEY = "patient.status.update";
+    public static final String PATIENT_STATUS_BATCH_QUEUE = "patient.status.batch.queue";
+    public static final String PATIENT_STATUS_BATCH_ROUTING_KEY = "patient.status.batch";
     public static final String PATIENT_SYNC_QUEUE = "patient.sync.queue";
     public static final String PATIENT_SYNC_ROUTING_KEY = "patient.sync.request";
     public static final String PATIENT_SYNC_REQUEST_QUEUE = "patient.sync.request.queue";
@@ -68,6 +70,11 @@ public class RabbitConfig {
         return QueueBuilder.durable(PATIENT_STATUS_QUEUE).build();
     }
 
+    @Bean
+    public Queue patientStatusBatchQueue() {
+        return QueueBuilder.durable(PATIENT_STATUS_BATCH_QUEUE).build();
+    }
+
     @Bean
     public Queue patientSyncQueue() {
         return QueueBuilder.durable(PATIENT_SYNC_QUEUE).build();
@@ -92,6 +99,14 @@ public class RabbitConfig {
                 .with(PATIENT_STATUS_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding patientStatusBatchBinding() {
+        return BindingBuilder
+                .bind(patientStatusBatchQueue())
+                .to(patientExchange())
+                .with(PATIENT_STATUS_BATCH_ROUTING_KEY);
+    }
+
     @Bean
     public Binding patientSyncBinding() {
         return BindingBuilder
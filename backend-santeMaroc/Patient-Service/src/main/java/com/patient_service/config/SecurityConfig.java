@@ -43,11 +43,11 @@ public class SecurityConfig {
                         // ✅ ERREUR
                         .requestMatchers("/error").permitAll()
 
-                        // ✅ PROFIL => JWT OBLIGATOIRE ✅✅✅
-                        .requestMatchers("/api/auth/profile").authenticated()
+                        // ✅ PROFIL => JWT PATIENT OBLIGATOIRE ✅✅✅
+                        .requestMatchers("/api/auth/profile").hasRole("PATIENT")
 
-                        // ✅ TOUT LE RESTE PROTÉGÉ
-                        .anyRequest().authenticated()
+                        // ✅ TOUT LE RESTE PROTÉGÉ (tokens patients uniquement, pas ceux des providers)
+                        .anyRequest().hasRole("PATIENT")
                 )
 
                 // ✅ SESSION JWT STATELESS
@@ -4,6 +4,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -86,11 +87,12 @@ public class PatientProfileController {
     //  GET MEDICAL HISTORY
     @GetMapping("/medical-history")
     @Operation(summary = "Get patient medical history", 
-               description = "Récupère tous les dossiers médicaux du patient authentifié. " +
-                           "Nécessite un compte ACTIVE.")
+               description = "Récupère les dossiers médicaux du patient authentifié, du plus récent au plus ancien " +
+                           "(tous, ou les 'limit' plus récents). Nécessite un compte ACTIVE.")
     public ResponseEntity<?> getMedicalHistory(
             Authentication authentication,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer limit) {
         try {
             Patient patient = (Patient) authentication.getPrincipal();
             
@@ -114,7 +116,7 @@ public class PatientProfileController {
             
             // Récupérer les dossiers médicaux depuis Medicalrecord-Service
             List<MedicalHistoryResponse> medicalRecords = 
-                    medicalRecordClientService.getPatientMedicalRecords(patient.getId(), jwtToken);
+                    medicalRecordClientService.getPatientMedicalRecords(patient.getId(), jwtToken, limit);
             
             return ResponseEntity.ok(medicalRecords);
         } catch (Exception e) {
@@ -127,6 +129,90 @@ public class PatientProfileController {
         }
     }
 
+    //  GET MEDICAL HISTORY SUMMARY
+    @GetMapping("/medical-history/summary")
+    @Operation(summary = "Get patient medical history timeline", 
+               description = "Récupère les résumés des dossiers médicaux du patient authentifié " +
+                           "(recordId, recordType, visitDate, diagnosis, providerId), sans le contenu clinique. " +
+                           "Le dossier complet s'obtient via /medical-history/{recordId}. Nécessite un compte ACTIVE.")
+    public ResponseEntity<?> getMedicalHistorySummary(
+            Authentication authentication,
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Patient patient = (Patient) authentication.getPrincipal();
+            if (patient.getAccountStatus() != AccountStatus.ACTIVE) {
+                return accountNotActivated(patient);
+            }
+            
+            List<MedicalHistoryResponse> summaries = medicalRecordClientService
+                    .getPatientMedicalRecordSummaries(patient.getId(), extractToken(request), limit);
+            return ResponseEntity.ok(summaries);
+        } catch (Exception e) {
+            return medicalHistoryError(e);
+        }
+    }
+
+    //  GET MEDICAL RECORD
+    @GetMapping("/medical-history/{recordId}")
+    @Operation(summary = "Get one medical record", 
+               description = "Récupère un dossier médical complet du patient authentifié. Nécessite un compte ACTIVE.")
+    public ResponseEntity<?> getMedicalRecord(
+            Authentication authentication,
+            HttpServletRequest request,
+            @PathVariable String recordId) {
+        try {
+            Patient patient = (Patient) authentication.getPrincipal();
+            if (patient.getAccountStatus() != AccountStatus.ACTIVE) {
+                return accountNotActivated(patient);
+            }
+            
+            MedicalHistoryResponse record = medicalRecordClientService.getMedicalRecord(recordId, extractToken(request));
+            // Un patient ne voit que ses propres dossiers
+            if (record == null || !patient.getId().equals(record.getPatientId())) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(record);
+        } catch (HttpClientErrorException.Forbidden e) {
+            return medicalRecordForbidden();
+        } catch (Exception e) {
+            return medicalHistoryError(e);
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> medicalRecordForbidden() {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Forbidden");
+        errorResponse.put("message", "Accès refusé à ce dossier médical.");
+        errorResponse.put("statusCode", HttpStatus.FORBIDDEN.value());
+        
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> accountNotActivated(Patient patient) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Account not activated");
+        errorResponse.put("message", "Votre compte n'est pas encore activé. Veuillez attendre l'approbation du prestataire de santé.");
+        errorResponse.put("accountStatus", patient.getAccountStatus().name());
+        errorResponse.put("statusCode", HttpStatus.FORBIDDEN.value());
+        
+        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+    }
+
+    private ResponseEntity<Map<String, Object>> medicalHistoryError(Exception e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("error", "Internal server error");
+        errorResponse.put("message", "Erreur lors de la récupération de l'historique médical : " + e.getMessage());
+        errorResponse.put("statusCode", HttpStatus.INTERNAL_SERVER_ERROR.value());
+        
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+
+    private String extractToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+    }
+
     //  DTO MAPPER
     private PatientProfileDTO convertToProfileDTO(Patient patient) {
         PatientProfileDTO dto = new PatientProfileDTO();
@@ -0,0 +1,15 @@
+package com.patient_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientStatusBatchMessage {
+    private String providerId;
+    private List<PatientStatusUpdateMessage> updates;
+}
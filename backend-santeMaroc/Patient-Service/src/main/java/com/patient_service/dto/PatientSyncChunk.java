@@ -0,0 +1,17 @@
+package com.patient_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PatientSyncChunk {
+    private String syncId; // Identifiant de la synchronisation (requestId de la demande)
+    private int sequence; // Numéro du chunk, à partir de 0
+    private boolean last; // true pour le dernier chunk de la synchronisation
+    private List<PatientDTO> patients;
+}
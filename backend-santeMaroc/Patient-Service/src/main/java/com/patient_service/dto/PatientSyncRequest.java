@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -11,4 +13,10 @@ public class PatientSyncRequest {
     private String requestId;
     private String providerId;
     private String status; // "ALL", "PENDING", "ACTIVE", "INACTIVE"
+    private LocalDateTime since; // Watermark : seuls les patients modifiés depuis cette date (null = synchronisation complète)
+    private String replyTo; // Routing key de la réponse, propre à l'instance du provider (null = routing key par défaut)
+
+    public PatientSyncRequest(String requestId, String providerId, String status) {
+        this(requestId, providerId, status, null, null);
+    }
 }
@@ -41,6 +41,7 @@ public class Patient implements UserDetails {
 
     private AccountStatus accountStatus = AccountStatus.PENDING;
     private LocalDateTime createdAt = LocalDateTime.now();
+    @Indexed
     private LocalDateTime updatedAt = LocalDateTime.now();
 
     private PersonalInfo personalInfo;
@@ -1,7 +1,9 @@
 package com.patient_service.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import com.patient_service.enums.AccountStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
@@ -16,4 +18,14 @@ public interface PatientRepository extends MongoRepository<Patient, String>{
     boolean existsByEmail(String email);
     
     List<Patient> findByAccountStatus(AccountStatus accountStatus);
+    
+    // Synchronisation : lecture par curseur, à fermer après usage
+    Stream<Patient> streamAllBy();
+    
+    Stream<Patient> streamByAccountStatus(AccountStatus accountStatus);
+    
+    // Synchronisation incrémentale (index sur updatedAt)
+    Stream<Patient> streamByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(LocalDateTime since);
+    
+    Stream<Patient> streamByAccountStatusAndUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(AccountStatus accountStatus, LocalDateTime since);
 }
@@ -8,12 +8,19 @@ import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Service client pour communiquer avec Medicalrecord-Service.
@@ -21,6 +28,9 @@ import java.util.Map;
  * Ce service permet au Patient-Service de récupérer les dossiers médicaux
  * d'un patient depuis Medicalrecord-Service via HTTP REST.
  * 
+ * Medicalrecord-Service pagine les dossiers par curseur : les pages sont demandées
+ * une à une, seulement quand les dossiers précédents ont été consommés.
+ * 
  * @author Patient-Service Team
  * @version 1.0
  */
@@ -34,6 +44,16 @@ public class MedicalRecordClientService {
     @Value("${medicalrecord.service.url:http://localhost:8083}")
     private String medicalRecordServiceUrl;
 
+    /** Nombre de dossiers demandés par page à Medicalrecord-Service */
+    @Value("${medicalrecord.client.page-size:50}")
+    private int pageSize;
+
+    /** Dossiers complets d'un patient */
+    private static final String RECORDS_PATH = "/api/records/read/patient/{patientId}";
+
+    /** Résumés des dossiers d'un patient (sans le contenu clinique) */
+    private static final String SUMMARIES_PATH = "/api/records/read/patient/{patientId}/summary";
+
     /**
      * Récupère tous les dossiers médicaux d'un patient.
      * 
@@ -42,51 +62,127 @@ public class MedicalRecordClientService {
      * @return Liste des dossiers médicaux du patient
      */
     public List<MedicalHistoryResponse> getPatientMedicalRecords(String patientId, String jwtToken) {
-        try {
-            String url = UriComponentsBuilder
-                    .fromHttpUrl(medicalRecordServiceUrl)
-                    .path("/api/records/read/patient/{patientId}")
-                    .buildAndExpand(patientId)
-                    .toUriString();
+        return getPatientMedicalRecords(patientId, jwtToken, null);
+    }
+
+    /**
+     * Récupère les dossiers médicaux les plus récents d'un patient.
+     * Seules les pages nécessaires pour atteindre la limite sont demandées.
+     * 
+     * @param patientId L'ID du patient
+     * @param jwtToken Le token JWT du patient pour l'authentification
+     * @param limit Nombre maximum de dossiers (null pour tous)
+     * @return Liste des dossiers médicaux du patient, du plus récent au plus ancien
+     */
+    public List<MedicalHistoryResponse> getPatientMedicalRecords(String patientId, String jwtToken, Integer limit) {
+        try (Stream<MedicalHistoryResponse> records = streamPatientMedicalRecords(patientId, jwtToken)) {
+            List<MedicalHistoryResponse> historyResponses = (limit != null && limit > 0 ? records.limit(limit) : records)
+                    .toList();
+
+            log.info("✅ {} dossier(s) médical(aux) récupéré(s) pour le patient {}", 
+                    historyResponses.size(), patientId);
+
+            return historyResponses;
+        }
+    }
 
-            log.info("Récupération des dossiers médicaux pour le patient {} depuis {}", 
-                    patientId, url);
+    /**
+     * Parcourt les dossiers médicaux d'un patient, du plus récent au plus ancien.
+     * Le flux est paresseux : la page suivante n'est demandée qu'une fois la précédente consommée.
+     * Si la première page échoue, le flux est vide ; si une page suivante échoue,
+     * l'exception est propagée (pas d'historique tronqué présenté comme complet).
+     * 
+     * @param patientId L'ID du patient
+     * @param jwtToken Le token JWT du patient pour l'authentification
+     * @return Flux des dossiers médicaux du patient
+     */
+    public Stream<MedicalHistoryResponse> streamPatientMedicalRecords(String patientId, String jwtToken) {
+        return StreamSupport.stream(new RecordPageSpliterator(RECORDS_PATH, patientId, jwtToken), false);
+    }
 
-            // Créer les headers avec le token JWT
-            org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
-            headers.set("Authorization", "Bearer " + jwtToken);
-            org.springframework.http.HttpEntity<?> entity = new org.springframework.http.HttpEntity<>(headers);
+    /**
+     * Récupère les résumés des dossiers médicaux d'un patient (sans le contenu clinique),
+     * pour la chronologie. Le dossier complet s'obtient avec getMedicalRecord.
+     * 
+     * @param patientId L'ID du patient
+     * @param jwtToken Le token JWT du patient pour l'authentification
+     * @param limit Nombre maximum de résumés (null pour tous)
+     * @return Liste des résumés (content null), du plus récent au plus ancien
+     */
+    public List<MedicalHistoryResponse> getPatientMedicalRecordSummaries(String patientId, String jwtToken, Integer limit) {
+        try (Stream<MedicalHistoryResponse> summaries = 
+                     StreamSupport.stream(new RecordPageSpliterator(SUMMARIES_PATH, patientId, jwtToken), false)) {
+            return (limit != null && limit > 0 ? summaries.limit(limit) : summaries).toList();
+        }
+    }
 
-            ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+    /**
+     * Récupère un dossier médical complet.
+     * 
+     * @param recordId L'ID du dossier
+     * @param jwtToken Le token JWT du patient pour l'authentification
+     * @return Le dossier, ou null s'il n'existe pas
+     * @throws HttpClientErrorException.Forbidden si Medicalrecord-Service refuse l'accès au dossier
+     */
+    public MedicalHistoryResponse getMedicalRecord(String recordId, String jwtToken) {
+        String url = UriComponentsBuilder
+                .fromHttpUrl(medicalRecordServiceUrl)
+                .path("/api/records/read/{recordId}")
+                .buildAndExpand(recordId)
+                .toUriString();
+        try {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
                     url,
                     HttpMethod.GET,
-                    entity,
-                    new ParameterizedTypeReference<List<Map<String, Object>>>() {}
+                    authorizedEntity(jwtToken),
+                    new ParameterizedTypeReference<Map<String, Object>>() {}
             );
+            return response.getBody() != null ? convertToMedicalHistoryResponse(response.getBody()) : null;
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        } catch (HttpClientErrorException.Forbidden e) {
+            log.warn("⚠️ Accès refusé par Medicalrecord-Service au dossier {}", recordId);
+            throw e;
+        }
+    }
 
-            List<Map<String, Object>> records = response.getBody();
-            if (records == null) {
-                log.warn("Aucun dossier médical trouvé pour le patient {}", patientId);
-                return new ArrayList<>();
-            }
-
-            // Convertir les Maps en MedicalHistoryResponse
-            List<MedicalHistoryResponse> historyResponses = new ArrayList<>();
-            for (Map<String, Object> record : records) {
-                MedicalHistoryResponse responseDto = convertToMedicalHistoryResponse(record);
-                historyResponses.add(responseDto);
-            }
+    /**
+     * Demande une page de dossiers médicaux à Medicalrecord-Service.
+     * 
+     * @param path Le chemin de la liste paginée (dossiers complets ou résumés)
+     * @param patientId L'ID du patient
+     * @param jwtToken Le token JWT du patient pour l'authentification
+     * @param cursor Le curseur de la page précédente (null pour la première page)
+     * @return La page (items et nextCursor), ou null si la réponse est vide
+     */
+    private Map<String, Object> fetchPage(String path, String patientId, String jwtToken, String cursor) {
+        UriComponentsBuilder builder = UriComponentsBuilder
+                .fromHttpUrl(medicalRecordServiceUrl)
+                .path(path)
+                .queryParam("size", pageSize);
+        if (cursor != null) {
+            builder.queryParam("cursor", cursor);
+        }
+        String url = builder.buildAndExpand(patientId).toUriString();
 
-            log.info("✅ {} dossier(s) médical(aux) récupéré(s) pour le patient {}", 
-                    historyResponses.size(), patientId);
+        log.debug("Récupération d'une page de dossiers médicaux pour le patient {} depuis {}", patientId, url);
 
-            return historyResponses;
+        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                url,
+                HttpMethod.GET,
+                authorizedEntity(jwtToken),
+                new ParameterizedTypeReference<Map<String, Object>>() {}
+        );
+        return response.getBody();
+    }
 
-        } catch (Exception e) {
-            log.error("❌ Erreur lors de la récupération des dossiers médicaux pour le patient {} : {}", 
-                    patientId, e.getMessage(), e);
-            return new ArrayList<>(); // Retourner une liste vide en cas d'erreur
-        }
+    /**
+     * Crée l'entité de requête avec le token JWT dans le header Authorization.
+     */
+    private org.springframework.http.HttpEntity<?> authorizedEntity(String jwtToken) {
+        org.springframework.http.HttpHeaders headers = new org.springframework.http.HttpHeaders();
+        headers.set("Authorization", "Bearer " + jwtToken);
+        return new org.springframework.http.HttpEntity<>(headers);
     }
 
     /**
@@ -157,5 +253,63 @@ public class MedicalRecordClientService {
         }
         return null;
     }
-}
 
+    // ==================== PAGINATION ====================
+
+    /**
+     * Parcourt les pages de Medicalrecord-Service en suivant les curseurs, à la demande.
+     * Une erreur sur la première page donne un flux vide ; une erreur après des dossiers
+     * déjà émis est propagée.
+     */
+    private final class RecordPageSpliterator extends Spliterators.AbstractSpliterator<MedicalHistoryResponse> {
+
+        private final String path;
+        private final String patientId;
+        private final String jwtToken;
+        private final Deque<MedicalHistoryResponse> buffer = new ArrayDeque<>();
+        private String cursor;
+        private boolean exhausted;
+        private boolean emitted;
+
+        RecordPageSpliterator(String path, String patientId, String jwtToken) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.path = path;
+            this.patientId = patientId;
+            this.jwtToken = jwtToken;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super MedicalHistoryResponse> action) {
+            while (buffer.isEmpty()) {
+                if (exhausted) {
+                    return false;
+                }
+                try {
+                    Map<String, Object> page = fetchPage(path, patientId, jwtToken, cursor);
+                    Object items = page != null ? page.get("items") : null;
+                    if (items instanceof List) {
+                        for (Object record : (List<Object>) items) {
+                            if (record instanceof Map) {
+                                buffer.add(convertToMedicalHistoryResponse((Map<String, Object>) record));
+                            }
+                        }
+                    }
+                    Object next = page != null ? page.get("nextCursor") : null;
+                    cursor = next != null ? next.toString() : null;
+                    exhausted = cursor == null;
+                } catch (RuntimeException e) {
+                    log.error("❌ Erreur lors de la récupération des dossiers médicaux pour le patient {} : {}", 
+                            patientId, e.getMessage(), e);
+                    exhausted = true;
+                    if (emitted) {
+                        throw e;
+                    }
+                }
+            }
+            emitted = true;
+            action.accept(buffer.poll());
+            return true;
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -31,6 +32,9 @@ public class PatientService implements UserDetailsService {
     @Autowired
     private PatientMapper mapper; // Mapper pour convertir Patient -> PatientDTO
 
+    @Autowired
+    private UserDetailsCache userDetailsCache; // Cache des principals construits depuis le JWT
+
     // ------------------- UserDetailsService -------------------
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
@@ -87,8 +91,9 @@ public class PatientService implements UserDetailsService {
         patient.setState(request.getState());
         patient.setZipCode(request.getZipCode());
         patient.setCountry(request.getCountry());
+        patient.setUpdatedAt(LocalDateTime.now());
 
-        return patientRepository.save(patient);
+        return saveAndEvict(patient);
     }
 
     // ------------------- Profile Status -------------------
@@ -159,13 +164,13 @@ public class PatientService implements UserDetailsService {
     public Patient activatePatient(String patientId) {
         Patient patient = findById(patientId);
         patient.setAccountStatus(AccountStatus.ACTIVE);
-        return patientRepository.save(patient);
+        return saveAndEvict(patient);
     }
 
     public Patient deactivatePatient(String patientId) {
         Patient patient = findById(patientId);
         patient.setAccountStatus(AccountStatus.INACTIVE);
-        return patientRepository.save(patient);
+        return saveAndEvict(patient);
     }
 
     public Patient updatePatientProfile(String patientId, Patient profileUpdates) {
@@ -181,7 +186,15 @@ public class PatientService implements UserDetailsService {
         if (profileUpdates.getState() != null) existingPatient.setState(profileUpdates.getState());
         if (profileUpdates.getZipCode() != null) existingPatient.setZipCode(profileUpdates.getZipCode());
         if (profileUpdates.getCountry() != null) existingPatient.setCountry(profileUpdates.getCountry());
+        existingPatient.setUpdatedAt(LocalDateTime.now());
+
+        return saveAndEvict(existingPatient);
+    }
 
-        return patientRepository.save(existingPatient);
+    // Sauvegarde et invalide l'utilisateur en cache pour que le principal reflète la modification
+    private Patient saveAndEvict(Patient patient) {
+        Patient saved = patientRepository.save(patient);
+        userDetailsCache.evict(saved.getEmail());
+        return saved;
     }
 }
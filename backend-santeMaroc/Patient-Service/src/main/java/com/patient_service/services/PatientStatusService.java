@@ -1,18 +1,28 @@
 package com.patient_service.services;
 
+import com.mongodb.bulk.BulkWriteResult;
 import com.patient_service.enums.AccountStatus;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import com.patient_service.config.RabbitConfig;
+import com.patient_service.dto.PatientStatusBatchMessage;
 import com.patient_service.dto.PatientStatusUpdateMessage;
 import com.patient_service.models.Patient;
 import com.patient_service.repository.PatientRepository;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -20,6 +30,8 @@ import java.util.Optional;
 public class PatientStatusService {
 
     private final PatientRepository patientRepository;
+    private final MongoTemplate mongoTemplate;
+    private final UserDetailsCache userDetailsCache;
 
     @RabbitListener(queues = RabbitConfig.PATIENT_STATUS_QUEUE)
     public void handleStatusUpdate(PatientStatusUpdateMessage message) {
@@ -43,6 +55,7 @@ public class PatientStatusService {
             patient.setUpdatedAt(LocalDateTime.now());
             
             patientRepository.save(patient);
+            userDetailsCache.evict(patient.getEmail());
             
             log.info("Successfully updated patient {} status to {}", 
                     patient.getId(), newStatus);
@@ -53,4 +66,44 @@ public class PatientStatusService {
             // You might want to implement a dead letter queue here
         }
     }
+
+    // ⚡ Lot de mises à jour de statut : un seul bulkWrite Mongo pour tout le lot
+    @RabbitListener(queues = RabbitConfig.PATIENT_STATUS_BATCH_QUEUE)
+    public void handleStatusBatch(PatientStatusBatchMessage batch) {
+        List<PatientStatusUpdateMessage> updates = batch.getUpdates() != null ? batch.getUpdates() : List.of();
+        log.info("Received status batch from provider {}: {} update(s)", batch.getProviderId(), updates.size());
+
+        try {
+            BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Patient.class);
+            Set<String> patientIds = new HashSet<>();
+            LocalDateTime now = LocalDateTime.now();
+
+            for (PatientStatusUpdateMessage message : updates) {
+                AccountStatus newStatus;
+                try {
+                    newStatus = AccountStatus.valueOf(message.getNewStatus());
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    log.warn("Ignoring invalid status {} for patient {}", message.getNewStatus(), message.getPatientId());
+                    continue;
+                }
+                bulkOps.updateOne(
+                        Query.query(Criteria.where("_id").is(message.getPatientId())),
+                        new Update().set("accountStatus", newStatus).set("updatedAt", now));
+                patientIds.add(message.getPatientId());
+            }
+
+            if (patientIds.isEmpty()) {
+                return;
+            }
+            BulkWriteResult result = bulkOps.execute();
+            userDetailsCache.evictIf(user -> user instanceof Patient patient && patientIds.contains(patient.getId()));
+
+            log.info("Successfully applied status batch: {} matched, {} modified",
+                    result.getMatchedCount(), result.getModifiedCount());
+
+        } catch (Exception e) {
+            log.error("Error processing status batch from provider {}: {}",
+                    batch.getProviderId(), e.getMessage(), e);
+        }
+    }
 }
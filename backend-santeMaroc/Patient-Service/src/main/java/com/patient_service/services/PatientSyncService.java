@@ -5,16 +5,22 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.patient_service.config.RabbitConfig;
 import com.patient_service.dto.PatientDTO;
+import com.patient_service.dto.PatientSyncChunk;
 import com.patient_service.dto.PatientSyncRequest;
 import com.patient_service.models.Patient;
 import com.patient_service.repository.PatientRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -24,43 +30,83 @@ public class PatientSyncService {
     private final PatientRepository patientRepository;
     private final RabbitTemplate rabbitTemplate;
 
+    // Nombre de patients par message de réponse (borne la taille des messages RabbitMQ)
+    @Value("${patient.sync.chunk-size:500}")
+    private int chunkSize;
+
     // ⚡ Communiquer avec RabbitMQ
     @RabbitListener(queues = RabbitConfig.PATIENT_SYNC_REQUEST_QUEUE)
     public void handleSyncRequest(PatientSyncRequest request) {
-        log.info("Received sync request from provider: {} for status: {}",
-                request.getProviderId(), request.getStatus());
+        log.info("Received sync request from provider: {} for status: {} (since: {})",
+                request.getProviderId(), request.getStatus(),
+                request.getSince() != null ? request.getSince() : "full sync");
 
-        try {
-            List<Patient> patients = getPatientsByStatus(request.getStatus());
-            List<PatientDTO> patientDTOs = patients.stream()
-                    .map(this::convertToDTO)
-                    .collect(Collectors.toList());
+        String syncId = request.getRequestId() != null ? request.getRequestId() : UUID.randomUUID().toString();
+        String routingKey = request.getReplyTo() != null
+                ? request.getReplyTo()
+                : RabbitConfig.PATIENT_SYNC_RESPONSE_ROUTING_KEY;
+        int size = Math.max(1, chunkSize);
+        int sequence = 0;
+        int total = 0;
 
-            rabbitTemplate.convertAndSend(
-                    RabbitConfig.PATIENT_EXCHANGE,
-                    RabbitConfig.PATIENT_SYNC_RESPONSE_ROUTING_KEY,
-                    patientDTOs
-            );
+        // Lecture par curseur : seul le chunk courant est gardé en mémoire
+        try (Stream<Patient> patients = request.getSince() != null
+                ? streamPatientsChangedSince(request.getStatus(), request.getSince())
+                : streamPatientsByStatus(request.getStatus())) {
 
-            log.info("Sent {} patients to response queue", patientDTOs.size());
+            List<PatientDTO> buffer = new ArrayList<>(size);
+            Iterator<Patient> iterator = patients.iterator();
+            while (iterator.hasNext()) {
+                buffer.add(convertToDTO(iterator.next()));
+                total++;
+                if (buffer.size() == size && iterator.hasNext()) {
+                    sendChunk(routingKey, syncId, sequence++, false, buffer);
+                    buffer = new ArrayList<>(size);
+                }
+            }
+            // Le dernier chunk est toujours envoyé, même vide, pour clore la synchronisation
+            sendChunk(routingKey, syncId, sequence, true, buffer);
+
+            log.info("Sent {} patients in {} chunk(s) for sync {}", total, sequence + 1, syncId);
 
         } catch (Exception e) {
-            log.error("Error processing sync request: {}", e.getMessage(), e);
+            log.error("Error processing sync request {} after {} chunk(s): {}", syncId, sequence, e.getMessage(), e);
         }
     }
 
-    private List<Patient> getPatientsByStatus(String status) {
-        if ("ALL".equalsIgnoreCase(status)) {
-            return patientRepository.findAll();
+    private void sendChunk(String routingKey, String syncId, int sequence, boolean last, List<PatientDTO> patients) {
+        rabbitTemplate.convertAndSend(
+                RabbitConfig.PATIENT_EXCHANGE,
+                routingKey,
+                new PatientSyncChunk(syncId, sequence, last, patients)
+        );
+    }
+
+    private Stream<Patient> streamPatientsByStatus(String status) {
+        if (status == null || "ALL".equalsIgnoreCase(status)) {
+            return patientRepository.streamAllBy();
         }
 
         try {
             AccountStatus accountStatus = AccountStatus.valueOf(status.toUpperCase());
-            return patientRepository.findByAccountStatus(accountStatus);
+            return patientRepository.streamByAccountStatus(accountStatus);
         } catch (IllegalArgumentException e) {
             log.warn("Invalid status requested: {}, returning all patients", status);
-            return patientRepository.findAll();
+            return patientRepository.streamAllBy();
+        }
+    }
+
+    // Synchronisation incrémentale : uniquement les patients modifiés depuis le watermark du provider
+    private Stream<Patient> streamPatientsChangedSince(String status, LocalDateTime since) {
+        if (status != null && !"ALL".equalsIgnoreCase(status)) {
+            try {
+                AccountStatus accountStatus = AccountStatus.valueOf(status.toUpperCase());
+                return patientRepository.streamByAccountStatusAndUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(accountStatus, since);
+            } catch (IllegalArgumentException e) {
+                log.warn("Invalid status requested: {}, returning all changed patients", status);
+            }
         }
+        return patientRepository.streamByUpdatedAtGreaterThanEqualOrderByUpdatedAtAsc(since);
     }
 
     private PatientDTO convertToDTO(Patient patient) {
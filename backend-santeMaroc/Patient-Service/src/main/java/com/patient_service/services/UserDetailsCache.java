@@ -0,0 +1,63 @@
+package com.patient_service.services;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache borné à durée de vie courte des utilisateurs authentifiés, indexé par email.
+ * Évite une requête Mongo à chaque requête HTTP pour les endpoints qui ont besoin de l'entité
+ * complète ; les entrées doivent être invalidées quand l'utilisateur est modifié.
+ */
+@Component
+public class UserDetailsCache {
+
+    @Value("${security.jwt.user-cache.ttl-ms:30000}")
+    private long ttlMs;
+
+    @Value("${security.jwt.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final Map<String, CachedUser> users = new ConcurrentHashMap<>();
+
+    /**
+     * Retourne l'utilisateur en cache, ou le charge avec le loader s'il est absent ou expiré.
+     */
+    public UserDetails get(String username, Function<String, UserDetails> loader) {
+        long now = System.currentTimeMillis();
+        CachedUser cached = users.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.user();
+        }
+
+        UserDetails user = loader.apply(username);
+        if (users.size() >= maxSize) {
+            users.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (users.size() >= maxSize) {
+                users.clear();
+            }
+        }
+        users.put(username, new CachedUser(user, now + ttlMs));
+        return user;
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            users.remove(username);
+        }
+    }
+
+    /**
+     * Invalide les utilisateurs en cache qui vérifient la condition (mises à jour groupées).
+     */
+    public void evictIf(Predicate<UserDetails> condition) {
+        users.values().removeIf(entry -> condition.test(entry.user()));
+    }
+
+    private record CachedUser(UserDetails user, long expiresAt) {}
+}
@@ -1,10 +1,14 @@
 package com.provider_service.config;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -13,7 +17,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.provider_service.services.JwtService;
 import com.provider_service.services.ProviderService;
+import com.provider_service.services.UserDetailsCache;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +36,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private ProviderService providerService;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    // true : authentification construite depuis les claims du token, sans requête Mongo par requête HTTP
+    @Value("${security.jwt.claims-authentication.enabled:true}")
+    private boolean claimsAuthentication;
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
@@ -37,31 +51,72 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         final String authHeader = request.getHeader("Authorization");
-        final String jwt;
-        final String userEmail;
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")
+                || SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String jwt = authHeader.substring(7); // retirer "Bearer "
+        final Claims claims;
+        try {
+            // Un seul parsing par requête : signature et expiration vérifiées ici
+            claims = jwtService.extractAllClaims(jwt);
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.debug("Token JWT invalide : " + e.getMessage());
             filterChain.doFilter(request, response);
             return;
         }
 
-        jwt = authHeader.substring(7); // retirer "Bearer "
-        userEmail = jwtService.extractUsername(jwt);
-
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = providerService.loadUserByUsername(userEmail);
-
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
-                        null,
-                        userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-            }
+        final String userEmail = claims.getSubject();
+        final boolean fromClaims = claimsAuthentication && claims.get("role") != null;
+        if (fromClaims && !isOwnToken(claims)) {
+            // Token signé avec le secret partagé mais émis pour un autre service : requête non authentifiée
+            logger.debug("Token JWT refusé : rôle " + claims.get("role") + " ou providerId absent");
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (userEmail != null) {
+            // Les anciens tokens sans claim "role" passent par le chargement de l'utilisateur
+            AbstractAuthenticationToken authToken = fromClaims
+                    ? buildClaimsAuthentication(userEmail, claims)
+                    : buildUserAuthentication(userEmail);
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Un token n'est accepté sur ses claims que s'il a été émis pour un provider de ce service :
+     * rôle PROVIDER et claim providerId présent.
+     */
+    private boolean isOwnToken(Claims claims) {
+        String role = claims.get("role", String.class);
+        String id = claims.get("providerId", String.class);
+        return ("PROVIDER".equals(role) || "ROLE_PROVIDER".equals(role)) && id != null && !id.isBlank();
+    }
+
+    private AbstractAuthenticationToken buildClaimsAuthentication(String userEmail, Claims claims) {
+        String role = claims.get("role", String.class);
+        List<SimpleGrantedAuthority> authorities =
+                List.of(new SimpleGrantedAuthority(role.startsWith("ROLE_") ? role : "ROLE_" + role));
+        return new JwtClaimsAuthenticationToken(
+                userEmail,
+                claims.get("providerId", String.class),
+                authorities,
+                () -> userDetailsCache.get(userEmail, providerService::loadUserByUsername)
+        );
+    }
+
+    private AbstractAuthenticationToken buildUserAuthentication(String userEmail) {
+        UserDetails userDetails = providerService.loadUserByUsername(userEmail);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails,
+                null,
+                userDetails.getAuthorities()
+        );
+    }
 }
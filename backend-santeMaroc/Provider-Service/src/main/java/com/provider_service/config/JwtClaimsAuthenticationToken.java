@@ -0,0 +1,74 @@
+package com.provider_service.config;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Authentification construite à partir des claims d'un token JWT vérifié.
+ * Le nom et les rôles viennent du token ; l'entité utilisateur n'est chargée
+ * (via le cache) que si un endpoint demande le principal.
+ */
+public class JwtClaimsAuthenticationToken extends AbstractAuthenticationToken {
+
+    private final String username;
+    private final String userId;
+    private final Supplier<UserDetails> principalLoader;
+    private volatile UserDetails principal;
+
+    public JwtClaimsAuthenticationToken(String username, String userId,
+                                        Collection<? extends GrantedAuthority> authorities,
+                                        Supplier<UserDetails> principalLoader) {
+        super(authorities);
+        this.username = username;
+        this.userId = userId;
+        this.principalLoader = principalLoader;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    /** ID de l'utilisateur porté par le token */
+    public String getUserId() {
+        return userId;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        UserDetails loaded = principal;
+        if (loaded == null) {
+            loaded = principalLoader.get();
+            principal = loaded;
+        }
+        return loaded;
+    }
+
+    // equals/hashCode/toString sans charger le principal
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (!(obj instanceof JwtClaimsAuthenticationToken other)) return false;
+        return username.equals(other.username) && getAuthorities().equals(other.getAuthorities());
+    }
+
+    @Override
+    public int hashCode() {
+        return username.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [Name=" + username + ", Granted Authorities=" + getAuthorities() + "]";
+    }
+}
@@ -0,0 +1,140 @@
+package com.provider_service.config;
+
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
+import org.springframework.amqp.core.TopicExchange;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration RabbitMQ du mode fan-out du Provider-Service.
+ * 
+ * Avec les queues durables partagées, les instances sont des consommateurs concurrents :
+ * chaque message n'est livré qu'à une seule instance et les projections locales divergent.
+ * En mode fan-out, chaque instance déclare ses propres queues (exclusives, supprimées à la
+ * déconnexion) liées à l'exchange des patients, et reçoit donc toutes les mises à jour :
+ * - Les nouveaux patients et les profils mis à jour
+ * - Les réponses aux synchronisations qu'elle a demandées (routing key propre à l'instance)
+ * - Les changements de statut effectués par les autres instances
+ * - Les changements d'assignation effectués par les autres instances
+ * 
+ * Activé par provider.patients.fanout.enabled=true.
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Configuration
+@ConditionalOnProperty(name = "provider.patients.fanout.enabled", havingValue = "true")
+public class PatientFanoutConfig {
+
+    // ==================== CONSTANTES ====================
+    
+    /** Préfixe des queues de cette instance */
+    private static final String QUEUE_PREFIX = "provider.patients." + RabbitConfig.INSTANCE_ID;
+
+    // ==================== QUEUES ====================
+    
+    /**
+     * Queue de l'instance pour les nouveaux patients et les mises à jour de profil.
+     * 
+     * @return Queue non durable, exclusive et auto-delete
+     */
+    @Bean
+    public Queue patientFanoutUpdatesQueue() {
+        return instanceQueue("updates");
+    }
+
+    /**
+     * Queue de l'instance pour les réponses de synchronisation.
+     * 
+     * @return Queue non durable, exclusive et auto-delete
+     */
+    @Bean
+    public Queue patientFanoutSyncResponseQueue() {
+        return instanceQueue("sync-response");
+    }
+
+    /**
+     * Queue de l'instance pour les mises à jour de statut unitaires.
+     * 
+     * @return Queue non durable, exclusive et auto-delete
+     */
+    @Bean
+    public Queue patientFanoutStatusQueue() {
+        return instanceQueue("status");
+    }
+
+    /**
+     * Queue de l'instance pour les mises à jour de statut groupées.
+     * 
+     * @return Queue non durable, exclusive et auto-delete
+     */
+    @Bean
+    public Queue patientFanoutStatusBatchQueue() {
+        return instanceQueue("status-batch");
+    }
+
+    /**
+     * Queue de l'instance pour les changements d'assignation.
+     * 
+     * @return Queue non durable, exclusive et auto-delete
+     */
+    @Bean
+    public Queue patientFanoutAssignmentQueue() {
+        return instanceQueue("assignments");
+    }
+
+    // ==================== BINDINGS ====================
+    
+    @Bean
+    public Binding patientFanoutUpdatesBinding(TopicExchange patientExchange) {
+        return BindingBuilder
+                .bind(patientFanoutUpdatesQueue())
+                .to(patientExchange)
+                .with(RabbitConfig.PATIENT_SYNC_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding patientFanoutSyncResponseBinding(TopicExchange patientExchange) {
+        return BindingBuilder
+                .bind(patientFanoutSyncResponseQueue())
+                .to(patientExchange)
+                .with(RabbitConfig.instanceSyncResponseRoutingKey());
+    }
+
+    @Bean
+    public Binding patientFanoutStatusBinding(TopicExchange patientExchange) {
+        return BindingBuilder
+                .bind(patientFanoutStatusQueue())
+                .to(patientExchange)
+                .with(RabbitConfig.PATIENT_STATUS_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding patientFanoutStatusBatchBinding(TopicExchange patientExchange) {
+        return BindingBuilder
+                .bind(patientFanoutStatusBatchQueue())
+                .to(patientExchange)
+                .with(RabbitConfig.PATIENT_STATUS_BATCH_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding patientFanoutAssignmentBinding(TopicExchange patientExchange) {
+        return BindingBuilder
+                .bind(patientFanoutAssignmentQueue())
+                .to(patientExchange)
+                .with(RabbitConfig.PATIENT_ASSIGNMENT_ROUTING_KEY);
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    private static Queue instanceQueue(String suffix) {
+        return QueueBuilder.nonDurable(QUEUE_PREFIX + "." + suffix)
+                .exclusive()
+                .autoDelete()
+                .build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.provider_service.config;
 
+import org.springframework.amqp.core.AcknowledgeMode;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -9,9 +10,12 @@ import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFacto
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.UUID;
+
 /**
  * Configuration RabbitMQ pour le Provider-Service.
  * 
@@ -55,6 +59,27 @@ public class RabbitConfig {
     /** Routing key pour les mises à jour de statut des patients */
     public static final String PATIENT_STATUS_ROUTING_KEY = "patient.status.update";
     
+    /** Routing key pour les mises à jour de statut groupées (un message pour plusieurs patients) */
+    public static final String PATIENT_STATUS_BATCH_ROUTING_KEY = "patient.status.batch";
+    
+    /** Routing key des changements d'assignation, entre instances du Provider-Service (mode fan-out) */
+    public static final String PATIENT_ASSIGNMENT_ROUTING_KEY = "provider.patient.assignment";
+    
+    /** Identifiant unique de cette instance (nom des queues exclusives du mode fan-out) */
+    public static final String INSTANCE_ID = UUID.randomUUID().toString();
+    
+    /** Header portant l'instance qui a publié un message */
+    public static final String ORIGIN_INSTANCE_HEADER = "x-origin-instance";
+    
+    /**
+     * Routing key des réponses de synchronisation destinées à cette seule instance.
+     * Elle ne correspond pas au binding de la queue partagée PATIENT_SYNC_RESPONSE_QUEUE.
+     * 
+     * @return PATIENT_SYNC_RESPONSE_ROUTING_KEY suivi de l'identifiant de l'instance
+     */
+    public static String instanceSyncResponseRoutingKey() {
+        return PATIENT_SYNC_RESPONSE_ROUTING_KEY + "." + INSTANCE_ID;
+    }
 
     // ==================== MESSAGE CONVERTER ====================
     
@@ -103,6 +128,29 @@ public class RabbitConfig {
         return factory;
     }
 
+    /**
+     * Configure la factory du pipeline de synchronisation des patients (PatientSyncListener).
+     * Un seul consommateur lit la queue dans l'ordre ; le parallélisme est assuré par les
+     * partitions du pipeline, qui acquittent chaque message après son traitement.
+     * 
+     * @param connectionFactory La factory de connexion RabbitMQ
+     * @param prefetch Nombre de messages non acquittés en cours de traitement
+     * @return SimpleRabbitListenerContainerFactory en acquittement manuel
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory patientSyncListenerContainerFactory(
+            ConnectionFactory connectionFactory,
+            @Value("${provider.patients.sync.prefetch:250}") int prefetch) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setConcurrentConsumers(1);
+        factory.setMaxConcurrentConsumers(1);
+        factory.setPrefetchCount(prefetch);
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        return factory;
+    }
+
     // ==================== EXCHANGE ====================
     
     /**
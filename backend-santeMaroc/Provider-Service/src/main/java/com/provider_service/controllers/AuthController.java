@@ -15,6 +15,7 @@ import com.provider_service.dto.ProviderSummaryDTO;
 import com.provider_service.dto.RegisterRequest;
 import com.provider_service.models.Provider;
 import com.provider_service.services.JwtService;
+import com.provider_service.services.ProviderDirectoryIndex;
 import com.provider_service.services.ProviderService;
 
 import jakarta.validation.Valid;
@@ -37,6 +38,11 @@ public class AuthController {
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private ProviderDirectoryIndex providerDirectoryIndex;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     @Autowired
     private AuthenticationManager authenticationManager;
 
@@ -105,7 +111,7 @@ public class AuthController {
         try {
             List<Provider> providers = providerService.getAllProviders();
             List<ProviderSummaryDTO> providerDTOs = providers.stream()
-                    .map(this::convertToSummaryDTO)
+                    .map(ProviderSummaryDTO::from)
                     .collect(Collectors.toList());
             return ResponseEntity.ok(providerDTOs);
         } catch (Exception e) {
@@ -113,6 +119,20 @@ public class AuthController {
         }
     }
 
+    @GetMapping("/providers/search")
+    @Operation(summary = "Search providers", 
+               description = "Searches the provider directory by name, specialty, sub-specialty, clinic or license. " +
+                           "Every word is matched as a prefix, case- and accent-insensitively, so it can back an autocomplete field. " +
+                           "Accessible without authentication.")
+    public ResponseEntity<List<ProviderSummaryDTO>> searchProviders(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "specialty", required = false) String specialty,
+            @RequestParam(value = "clinic", required = false) String clinic,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS));
+        return ResponseEntity.ok(providerDirectoryIndex.search(query, specialty, clinic, boundedLimit));
+    }
+
     // ---------- MAPPER ----------
     private ProviderProfileDTO convertToProfileDTO(Provider provider) {
         ProviderProfileDTO dto = new ProviderProfileDTO();
@@ -128,18 +148,4 @@ public class AuthController {
         dto.setContactNumber(provider.getContactNumber());
         return dto;
     }
-
-    private ProviderSummaryDTO convertToSummaryDTO(Provider provider) {
-        ProviderSummaryDTO dto = new ProviderSummaryDTO();
-        dto.setProviderID(provider.getId());
-        dto.setEmail(provider.getEmail());
-        dto.setFullName(provider.getFullName());
-        dto.setProfessionalTitle(provider.getProfessionalTitle());
-        dto.setSpecialty(provider.getSpecialty());
-        dto.setSubSpecialties(provider.getSubSpecialties());
-        dto.setPrimaryClinicName(provider.getPrimaryClinicName());
-        dto.setClinicAddress(provider.getClinicAddress());
-        dto.setContactNumber(provider.getContactNumber());
-        return dto;
-    }
 }
@@ -1,7 +1,9 @@
 package com.provider_service.controllers;
 
+import com.provider_service.dto.BulkPatientStatusRequest;
 import com.provider_service.dto.PatientDTO;
 import com.provider_service.enums.AccountStatus;
+import com.provider_service.listeners.ListenerMetrics;
 import com.provider_service.services.ProviderPatientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +14,8 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/providers")
@@ -19,7 +23,10 @@ import java.util.Map;
 @Tag(name = "Patient Management", description = "Endpoints pour gérer les patients")
 public class ProviderPatientController {
 
+    private static final int MAX_BULK_STATUS_UPDATES = 1000;
+
     private final ProviderPatientService providerPatientService;
+    private final ListenerMetrics listenerMetrics;
 
     @GetMapping("/patients/all")
     @Operation(summary = "Récupérer tous les patients", 
@@ -99,13 +106,51 @@ public class ProviderPatientController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping("/patients/status")
+    @Operation(summary = "Mettre à jour le statut de plusieurs patients", 
+               description = "Applique le même statut (ACTIVE, SUSPENDED, etc.) à une liste de patients, " +
+                           "par exemple pour valider les inscriptions du jour. " +
+                           "Les changements sont transmis à Patient-Service en un seul message.")
+    public ResponseEntity<Map<String, Object>> updatePatientsStatus(
+            @RequestBody BulkPatientStatusRequest request,
+            Authentication authentication) {
+        List<String> patientIds = request.getPatientIds();
+        if (request.getStatus() == null || patientIds == null || patientIds.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Requête invalide",
+                "message", "Le statut et la liste des patients sont obligatoires."
+            ));
+        }
+        if (patientIds.size() > MAX_BULK_STATUS_UPDATES) {
+            return ResponseEntity.badRequest().body(Map.of(
+                "error", "Requête trop volumineuse",
+                "message", "Au plus " + MAX_BULK_STATUS_UPDATES + " patients par requête."
+            ));
+        }
+
+        String providerId = authentication.getName();
+        List<PatientDTO> updated = providerPatientService.updatePatientsStatus(
+                patientIds, request.getStatus(), request.getReason(), providerId);
+
+        Set<String> updatedIds = updated.stream().map(PatientDTO::getId).collect(Collectors.toSet());
+        List<String> notFound = patientIds.stream().filter(id -> !updatedIds.contains(id)).distinct().toList();
+        return ResponseEntity.ok(Map.of(
+            "updated", updated.size(),
+            "notFound", notFound
+        ));
+    }
+
     @PostMapping("/patients/sync")
     @Operation(summary = "Synchroniser tous les patients", 
-               description = "Demande la synchronisation de tous les patients existants depuis Patient-Service")
-    public ResponseEntity<Map<String, String>> syncAllPatients(Authentication authentication) {
+               description = "Demande la synchronisation des patients depuis Patient-Service. " +
+                           "Par défaut, seuls les patients modifiés depuis la dernière synchronisation sont renvoyés ; " +
+                           "full=true force une synchronisation complète.")
+    public ResponseEntity<Map<String, String>> syncAllPatients(
+            @RequestParam(value = "full", defaultValue = "false") boolean full,
+            Authentication authentication) {
         String providerId = authentication.getName();
         try {
-            providerPatientService.requestSyncAllPatients(providerId);
+            providerPatientService.requestSyncAllPatients(providerId, full);
             return ResponseEntity.ok(Map.of(
                 "message", "Demande de synchronisation envoyée avec succès",
                 "status", "success"
@@ -118,6 +163,14 @@ public class ProviderPatientController {
         }
     }
     
+    @GetMapping("/patients/sync/metrics")
+    @Operation(summary = "Métriques des listeners de synchronisation", 
+               description = "Retourne, pour chaque listener RabbitMQ des patients, le nombre de messages traités, " +
+                           "les échecs, le débit (messages/s) et la latence moyenne et maximale (ms).")
+    public ResponseEntity<Map<String, Map<String, Object>>> getSyncListenerMetrics() {
+        return ResponseEntity.ok(listenerMetrics.snapshot());
+    }
+    
     @PostMapping("/patients/{patientId}/assign")
     @Operation(summary = "Assigner un patient à moi", 
                description = "Assigne un patient au provider connecté. " +
@@ -127,7 +180,15 @@ public class ProviderPatientController {
             @PathVariable String patientId,
             Authentication authentication) {
         String providerId = authentication.getName();
-        PatientDTO patient = providerPatientService.assignPatientToProvider(patientId, providerId);
+        PatientDTO patient;
+        try {
+            patient = providerPatientService.assignPatientToProvider(patientId, providerId);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(409).body(Map.of(
+                "error", "Patient déjà assigné",
+                "message", e.getMessage()
+            ));
+        }
         
         if (patient != null) {
             return ResponseEntity.ok(Map.of(
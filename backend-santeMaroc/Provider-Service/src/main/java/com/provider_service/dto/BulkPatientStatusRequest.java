@@ -0,0 +1,19 @@
+package com.provider_service.dto;
+
+import com.provider_service.enums.AccountStatus;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Requête de changement de statut groupé : un même statut appliqué à plusieurs patients.
+ */
+@Data
+@NoArgsConstructor
+public class BulkPatientStatusRequest {
+    private List<String> patientIds;
+    private AccountStatus status;
+    private String reason; // Raison de suspension (optionnelle)
+}
@@ -0,0 +1,36 @@
+package com.provider_service.dto;
+
+/**
+ * DTO signalant aux autres instances du Provider-Service (mode fan-out) qu'une assignation a changé.
+ * Le destinataire relit l'assignation dans MongoDB : l'ordre d'arrivée des messages est sans importance.
+ */
+public class PatientAssignmentMessageDTO {
+    private String patientId;
+    private String providerId;
+
+    // Constructeur par défaut
+    public PatientAssignmentMessageDTO() {
+    }
+
+    public PatientAssignmentMessageDTO(String patientId, String providerId) {
+        this.patientId = patientId;
+        this.providerId = providerId;
+    }
+
+    // Getters et Setters
+    public String getPatientId() {
+        return patientId;
+    }
+
+    public void setPatientId(String patientId) {
+        this.patientId = patientId;
+    }
+
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(String providerId) {
+        this.providerId = providerId;
+    }
+}
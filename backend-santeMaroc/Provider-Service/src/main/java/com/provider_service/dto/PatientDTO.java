@@ -32,6 +32,28 @@ public class PatientDTO {
     // Constructeur vide
     public PatientDTO() {}
 
+    // Constructeur de copie (utilisé par PatientStore pour les mises à jour copy-on-write)
+    public PatientDTO(PatientDTO other) {
+        this.id = other.id;
+        this.email = other.email;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.fullName = other.fullName;
+        this.phone = other.phone;
+        this.gender = other.gender;
+        this.address = other.address;
+        this.city = other.city;
+        this.state = other.state;
+        this.zipCode = other.zipCode;
+        this.country = other.country;
+        this.accountStatus = other.accountStatus;
+        this.dateOfBirth = other.dateOfBirth;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.suspensionReason = other.suspensionReason;
+        this.assignedProviderId = other.assignedProviderId;
+    }
+
     // Constructeur utilisé par le listener
     public PatientDTO(String id, String fullName, String email, String phone, AccountStatus accountStatus) {
         this.id = id;
@@ -0,0 +1,38 @@
+package com.provider_service.dto;
+
+import java.util.List;
+
+/**
+ * DTO pour envoyer un lot de mises à jour de statut à Patient-Service en un seul message RabbitMQ.
+ * Format compatible avec Patient-Service.
+ */
+public class PatientStatusBatchMessageDTO {
+    private String providerId;
+    private List<PatientStatusUpdateMessageDTO> updates;
+
+    // Constructeur par défaut
+    public PatientStatusBatchMessageDTO() {
+    }
+
+    public PatientStatusBatchMessageDTO(String providerId, List<PatientStatusUpdateMessageDTO> updates) {
+        this.providerId = providerId;
+        this.updates = updates;
+    }
+
+    // Getters et Setters
+    public String getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(String providerId) {
+        this.providerId = providerId;
+    }
+
+    public List<PatientStatusUpdateMessageDTO> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<PatientStatusUpdateMessageDTO> updates) {
+        this.updates = updates;
+    }
+}
@@ -0,0 +1,24 @@
+package com.provider_service.dto;
+
+import java.util.List;
+
+public class PatientSyncChunk {
+    private String syncId; // Identifiant de la synchronisation (requestId de la demande)
+    private int sequence; // Numéro du chunk, à partir de 0
+    private boolean last; // true pour le dernier chunk de la synchronisation
+    private List<PatientDTO> patients;
+
+    public PatientSyncChunk() {}
+
+    public String getSyncId() { return syncId; }
+    public void setSyncId(String syncId) { this.syncId = syncId; }
+
+    public int getSequence() { return sequence; }
+    public void setSequence(int sequence) { this.sequence = sequence; }
+
+    public boolean isLast() { return last; }
+    public void setLast(boolean last) { this.last = last; }
+
+    public List<PatientDTO> getPatients() { return patients; }
+    public void setPatients(List<PatientDTO> patients) { this.patients = patients; }
+}
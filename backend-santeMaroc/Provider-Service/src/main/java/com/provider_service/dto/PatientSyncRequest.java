@@ -1,9 +1,13 @@
 package com.provider_service.dto;
 
+import java.time.LocalDateTime;
+
 public class PatientSyncRequest {
     private String requestId;
     private String providerId;
     private String status;
+    private LocalDateTime since; // Watermark : patients modifiés depuis cette date (null = synchronisation complète)
+    private String replyTo; // Routing key de la réponse (null = PATIENT_SYNC_RESPONSE_ROUTING_KEY)
 
     public PatientSyncRequest() {}
 
@@ -13,6 +17,11 @@ public class PatientSyncRequest {
         this.status = status;
     }
 
+    public PatientSyncRequest(String requestId, String providerId, String status, LocalDateTime since) {
+        this(requestId, providerId, status);
+        this.since = since;
+    }
+
     public String getRequestId() { return requestId; }
     public void setRequestId(String requestId) { this.requestId = requestId; }
 
@@ -21,4 +30,10 @@ public class PatientSyncRequest {
 
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
+
+    public LocalDateTime getSince() { return since; }
+    public void setSince(LocalDateTime since) { this.since = since; }
+
+    public String getReplyTo() { return replyTo; }
+    public void setReplyTo(String replyTo) { this.replyTo = replyTo; }
 }
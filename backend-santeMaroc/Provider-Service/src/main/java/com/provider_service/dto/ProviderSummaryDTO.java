@@ -1,5 +1,7 @@
 package com.provider_service.dto;
 
+import com.provider_service.models.Provider;
+
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -23,5 +25,19 @@ public class ProviderSummaryDTO {
     private String primaryClinicName;
     private String clinicAddress;
     private String contactNumber;
+
+    public static ProviderSummaryDTO from(Provider provider) {
+        ProviderSummaryDTO dto = new ProviderSummaryDTO();
+        dto.setProviderID(provider.getId());
+        dto.setEmail(provider.getEmail());
+        dto.setFullName(provider.getFullName());
+        dto.setProfessionalTitle(provider.getProfessionalTitle());
+        dto.setSpecialty(provider.getSpecialty());
+        dto.setSubSpecialties(provider.getSubSpecialties());
+        dto.setPrimaryClinicName(provider.getPrimaryClinicName());
+        dto.setClinicAddress(provider.getClinicAddress());
+        dto.setContactNumber(provider.getContactNumber());
+        return dto;
+    }
 }
 
@@ -0,0 +1,82 @@
+package com.provider_service.listeners;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métriques des listeners RabbitMQ : débit et latence par listener.
+ * 
+ * La latence mesurée va de la réception du message à la fin de son traitement
+ * (attente dans une partition comprise).
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Component
+public class ListenerMetrics {
+
+    private final Map<String, Stats> statsByListener = new ConcurrentHashMap<>();
+
+    /**
+     * Enregistre le traitement d'un message.
+     * 
+     * @param listenerId L'identifiant du listener
+     * @param receivedAtNanos Le moment de réception du message (System.nanoTime())
+     * @param success false si le traitement a échoué
+     */
+    public void record(String listenerId, long receivedAtNanos, boolean success) {
+        statsByListener.computeIfAbsent(listenerId, id -> new Stats())
+                .record(System.nanoTime() - receivedAtNanos, success);
+    }
+
+    /**
+     * @return Les métriques de chaque listener, triées par identifiant
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> snapshot = new TreeMap<>();
+        statsByListener.forEach((id, stats) -> snapshot.put(id, stats.toMap()));
+        return snapshot;
+    }
+
+    // ==================== STATISTIQUES ====================
+    
+    /**
+     * Compteurs d'un listener (sans verrou).
+     */
+    private static final class Stats {
+
+        private final long startedAt = System.nanoTime();
+        private final LongAdder messages = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder totalLatencyNanos = new LongAdder();
+        private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+        void record(long latencyNanos, boolean success) {
+            messages.increment();
+            if (!success) {
+                failures.increment();
+            }
+            totalLatencyNanos.add(latencyNanos);
+            maxLatencyNanos.accumulate(latencyNanos);
+        }
+
+        Map<String, Object> toMap() {
+            long count = messages.sum();
+            double elapsedSeconds = Math.max(System.nanoTime() - startedAt, 1) / 1e9;
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("messages", count);
+            map.put("failures", failures.sum());
+            map.put("throughputPerSecond", count / elapsedSeconds);
+            map.put("avgLatencyMs", count > 0 ? totalLatencyNanos.sum() / (double) count / 1e6 : 0.0);
+            map.put("maxLatencyMs", TimeUnit.NANOSECONDS.toMillis(maxLatencyNanos.get()));
+            return map;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.provider_service.listeners;
+
+import com.provider_service.config.RabbitConfig;
+import com.provider_service.dto.PatientAssignmentMessageDTO;
+import com.provider_service.dto.PatientDTO;
+import com.provider_service.dto.PatientStatusBatchMessageDTO;
+import com.provider_service.dto.PatientStatusUpdateMessageDTO;
+import com.provider_service.dto.PatientSyncChunk;
+import com.provider_service.services.ProviderPatientService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener RabbitMQ du mode fan-out : consomme les queues exclusives de cette instance.
+ * 
+ * Chaque queue a un seul consommateur, pour appliquer les messages dans leur ordre d'arrivée.
+ * Les mises à jour de statut et d'assignation publiées par cette instance sont ignorées (déjà appliquées localement).
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "provider.patients.fanout.enabled", havingValue = "true")
+public class PatientFanoutListener {
+
+    private final ProviderPatientService providerPatientService;
+    private final ListenerMetrics listenerMetrics;
+
+    /**
+     * Reçoit les nouveaux patients et les profils mis à jour.
+     * 
+     * @param patient Le patient reçu
+     */
+    @RabbitListener(queues = "#{patientFanoutUpdatesQueue.name}", concurrency = "1")
+    public void handlePatientUpdate(PatientDTO patient) {
+        long receivedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            providerPatientService.receivePatientFromQueue(patient);
+            success = true;
+        } finally {
+            listenerMetrics.record("fanout-updates", receivedAt, success);
+        }
+    }
+
+    /**
+     * Reçoit les chunks des synchronisations demandées par cette instance.
+     * 
+     * @param chunk Un chunk de la réponse de synchronisation
+     */
+    @RabbitListener(queues = "#{patientFanoutSyncResponseQueue.name}", concurrency = "1")
+    public void handleSyncResponse(PatientSyncChunk chunk) {
+        long receivedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            providerPatientService.receiveSyncResponse(chunk);
+            success = true;
+        } finally {
+            listenerMetrics.record("fanout-sync-response", receivedAt, success);
+        }
+    }
+
+    /**
+     * Reflète les mises à jour de statut effectuées par les autres instances.
+     * 
+     * @param update La mise à jour de statut
+     * @param origin L'instance qui a publié le message (absent pour un autre émetteur)
+     */
+    @RabbitListener(queues = "#{patientFanoutStatusQueue.name}", concurrency = "1")
+    public void handleStatusUpdate(PatientStatusUpdateMessageDTO update,
+                                   @Header(name = RabbitConfig.ORIGIN_INSTANCE_HEADER, required = false) String origin) {
+        if (RabbitConfig.INSTANCE_ID.equals(origin)) {
+            return;
+        }
+        if (providerPatientService.applyStatusUpdate(update)) {
+            log.debug("Statut du patient {} reflété depuis une autre instance : {}", 
+                    update.getPatientId(), update.getNewStatus());
+        }
+    }
+
+    /**
+     * Reflète les lots de mises à jour de statut effectués par les autres instances.
+     * 
+     * @param batch Le lot de mises à jour
+     * @param origin L'instance qui a publié le message (absent pour un autre émetteur)
+     */
+    @RabbitListener(queues = "#{patientFanoutStatusBatchQueue.name}", concurrency = "1")
+    public void handleStatusBatch(PatientStatusBatchMessageDTO batch,
+                                  @Header(name = RabbitConfig.ORIGIN_INSTANCE_HEADER, required = false) String origin) {
+        if (RabbitConfig.INSTANCE_ID.equals(origin)) {
+            return;
+        }
+        int applied = providerPatientService.applyStatusBatch(batch);
+        log.debug("Lot de statuts reflété depuis une autre instance : {} patient(s) modifié(s)", applied);
+    }
+
+    /**
+     * Reflète les changements d'assignation effectués par les autres instances.
+     * 
+     * @param change Le changement d'assignation
+     * @param origin L'instance qui a publié le message
+     */
+    @RabbitListener(queues = "#{patientFanoutAssignmentQueue.name}", concurrency = "1")
+    public void handleAssignmentChange(PatientAssignmentMessageDTO change,
+                                       @Header(name = RabbitConfig.ORIGIN_INSTANCE_HEADER, required = false) String origin) {
+        if (RabbitConfig.INSTANCE_ID.equals(origin)) {
+            return;
+        }
+        long receivedAt = System.nanoTime();
+        boolean success = false;
+        try {
+            if (providerPatientService.refreshAssignment(change.getPatientId())) {
+                log.debug("Assignation du patient {} reflétée depuis une autre instance", change.getPatientId());
+            }
+            success = true;
+        } finally {
+            listenerMetrics.record("fanout-assignments", receivedAt, success);
+        }
+    }
+}
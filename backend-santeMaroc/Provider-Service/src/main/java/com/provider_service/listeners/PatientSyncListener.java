@@ -0,0 +1,168 @@
+package com.provider_service.listeners;
+
+import com.provider_service.config.RabbitConfig;
+import com.provider_service.dto.PatientDTO;
+import com.provider_service.services.ProviderPatientService;
+import com.rabbitmq.client.Channel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unique consommateur de la queue PATIENT_SYNC_QUEUE (nouveaux patients et profils mis à jour).
+ * 
+ * Pipeline :
+ * - Un seul consommateur lit la queue dans l'ordre, avec un prefetch configurable
+ * - Chaque message est confié à une partition choisie par hash de l'ID du patient :
+ *   les mises à jour d'un même patient sont appliquées dans l'ordre, celles de patients
+ *   différents en parallèle (provider.patients.sync.concurrency partitions)
+ * - Le message est acquitté après son traitement ; en cas d'échec il est remis une fois
+ *   dans la queue, puis écarté (la prochaine synchronisation rattrape le patient)
+ * 
+ * Les partitions acquittent depuis leurs propres threads : un Channel RabbitMQ n'étant pas
+ * utilisable en concurrence, chaque acquittement est fait sous le verrou du canal, et abandonné
+ * si le canal a été fermé entre-temps (le message est alors relivré sur le nouveau canal).
+ * 
+ * Les files des partitions ne sont pas bornées : c'est le prefetch (provider.patients.sync.prefetch)
+ * qui borne leur contenu, RabbitMQ ne livrant pas plus de messages non acquittés que le prefetch.
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Component
+public class PatientSyncListener {
+
+    // ==================== CONSTANTES ====================
+    
+    /** Identifiant du listener dans les métriques */
+    public static final String LISTENER_ID = "patient-sync";
+
+    // ==================== CHAMPS ====================
+    
+    private final ProviderPatientService providerPatientService;
+    private final ListenerMetrics listenerMetrics;
+    
+    /**
+     * Partitions : un thread par partition, pour conserver l'ordre par patient.
+     * Leur arriéré total est borné par le prefetch du conteneur.
+     */
+    private final ExecutorService[] partitions;
+
+    public PatientSyncListener(ProviderPatientService providerPatientService,
+                               ListenerMetrics listenerMetrics,
+                               @Value("${provider.patients.sync.concurrency:4}") int concurrency) {
+        this.providerPatientService = providerPatientService;
+        this.listenerMetrics = listenerMetrics;
+        this.partitions = new ExecutorService[Math.max(concurrency, 1)];
+        for (int i = 0; i < partitions.length; i++) {
+            int index = i;
+            partitions[i] = Executors.newSingleThreadExecutor(
+                    runnable -> new Thread(runnable, "patient-sync-" + index));
+        }
+        log.info("✅ Pipeline de synchronisation des patients : {} partition(s)", partitions.length);
+    }
+
+    // ==================== LISTENER RABBITMQ ====================
+    
+    /**
+     * Reçoit un patient depuis Patient-Service et le confie à sa partition.
+     * 
+     * @param patient Le patient reçu
+     * @param channel Le canal, pour l'acquittement manuel
+     * @param deliveryTag Le tag de livraison du message
+     * @param redelivered true si le message a déjà été livré une fois
+     */
+    @RabbitListener(queues = RabbitConfig.PATIENT_SYNC_QUEUE, 
+                    containerFactory = "patientSyncListenerContainerFactory")
+    public void handlePatient(PatientDTO patient, Channel channel,
+                              @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                              @Header(AmqpHeaders.REDELIVERED) boolean redelivered) {
+        long receivedAt = System.nanoTime();
+        if (patient.getId() == null) {
+            log.warn("⚠️ Patient sans ID ignoré : {}", patient.getEmail());
+            ack(channel, deliveryTag);
+            listenerMetrics.record(LISTENER_ID, receivedAt, false);
+            return;
+        }
+        
+        partitionOf(patient.getId()).execute(() -> {
+            boolean success = false;
+            try {
+                providerPatientService.receivePatientFromQueue(patient);
+                success = true;
+                ack(channel, deliveryTag);
+            } catch (Exception e) {
+                log.error("❌ Erreur lors du traitement du patient {} : {}", patient.getId(), e.getMessage(), e);
+                reject(channel, deliveryTag, !redelivered);
+            } finally {
+                listenerMetrics.record(LISTENER_ID, receivedAt, success);
+            }
+        });
+    }
+
+    // ==================== ARRÊT ====================
+    
+    /**
+     * Termine les traitements en cours. Les messages non acquittés sont relivrés par RabbitMQ.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        for (ExecutorService partition : partitions) {
+            partition.shutdown();
+        }
+        for (ExecutorService partition : partitions) {
+            partition.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    private ExecutorService partitionOf(String patientId) {
+        return partitions[Math.floorMod(patientId.hashCode(), partitions.length)];
+    }
+
+    /**
+     * Acquitte un message. Appelé depuis les partitions : sérialisé sur le canal, et ignoré
+     * si le canal est fermé (son tag de livraison ne vaut plus rien sur un canal rétabli).
+     */
+    private static void ack(Channel channel, long deliveryTag) {
+        synchronized (channel) {
+            if (!channel.isOpen()) {
+                log.debug("Canal fermé : acquittement du message {} abandonné (relivraison)", deliveryTag);
+                return;
+            }
+            try {
+                channel.basicAck(deliveryTag, false);
+            } catch (IOException | RuntimeException e) {
+                log.warn("⚠️ Acquittement du message {} impossible : {}", deliveryTag, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Rejette un message, avec les mêmes précautions que ack.
+     */
+    private static void reject(Channel channel, long deliveryTag, boolean requeue) {
+        synchronized (channel) {
+            if (!channel.isOpen()) {
+                log.debug("Canal fermé : rejet du message {} abandonné (relivraison)", deliveryTag);
+                return;
+            }
+            try {
+                channel.basicNack(deliveryTag, false, requeue);
+            } catch (IOException | RuntimeException e) {
+                log.warn("⚠️ Rejet du message {} impossible : {}", deliveryTag, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.provider_service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Persistance des assignations patient -> provider, source de vérité partagée par toutes les instances.
+ * 
+ * Un document par patient assigné : { _id: patientId, providerId, assignedAt }.
+ * Un patient non assigné n'a pas de document. Les écritures sont des mises à jour conditionnelles
+ * atomiques côté MongoDB : deux providers (ou deux instances) ne peuvent pas assigner le même patient.
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientAssignmentRepository {
+
+    /** Collection MongoDB des assignations */
+    public static final String COLLECTION = "provider_patient_assignments";
+
+    private static final String PROVIDER_ID = "providerId";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Assigne un patient à un provider, seulement s'il n'est pas assigné ou déjà assigné à ce provider.
+     * Upsert sur { _id, providerId } : si le patient est assigné à un autre provider, l'insert
+     * échoue sur la clé _id et rien n'est modifié.
+     * 
+     * @param patientId L'ID du patient
+     * @param providerId L'ID du provider
+     * @return true si le patient est assigné à ce provider après l'appel
+     */
+    public boolean assignIfAvailable(String patientId, String providerId) {
+        Query query = Query.query(Criteria.where("_id").is(patientId).and(PROVIDER_ID).is(providerId));
+        Update update = new Update().setOnInsert("assignedAt", new Date());
+        try {
+            mongoTemplate.upsert(query, update, COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Retire l'assignation d'un patient, seulement si elle appartient à ce provider.
+     * 
+     * @param patientId L'ID du patient
+     * @param providerId L'ID du provider
+     * @return true si l'assignation a été retirée
+     */
+    public boolean removeIfOwner(String patientId, String providerId) {
+        Query query = Query.query(Criteria.where("_id").is(patientId).and(PROVIDER_ID).is(providerId));
+        return mongoTemplate.remove(query, COLLECTION).getDeletedCount() > 0;
+    }
+
+    /**
+     * @param patientId L'ID du patient
+     * @return L'ID du provider assigné, ou null si le patient n'est pas assigné
+     */
+    public String findOwner(String patientId) {
+        Document assignment = mongoTemplate.findById(patientId, Document.class, COLLECTION);
+        return assignment != null ? assignment.getString(PROVIDER_ID) : null;
+    }
+
+    /**
+     * @return Toutes les assignations : ID du patient -> ID du provider
+     */
+    public Map<String, String> findAll() {
+        Map<String, String> assignments = new HashMap<>();
+        for (Document assignment : mongoTemplate.findAll(Document.class, COLLECTION)) {
+            assignments.put(assignment.get("_id").toString(), assignment.getString(PROVIDER_ID));
+        }
+        return assignments;
+    }
+}
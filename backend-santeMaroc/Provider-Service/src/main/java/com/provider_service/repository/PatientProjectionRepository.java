@@ -0,0 +1,43 @@
+package com.provider_service.repository;
+
+import com.provider_service.dto.PatientDTO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Persistance de la projection locale des patients de Provider-Service.
+ * 
+ * La projection est stockée dans sa propre collection (distincte de la collection "patients"
+ * de Patient-Service) et rechargée au démarrage, ce qui évite une resynchronisation complète.
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Repository
+@RequiredArgsConstructor
+public class PatientProjectionRepository {
+
+    /** Collection MongoDB de la projection */
+    public static final String COLLECTION = "provider_patients";
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Enregistre (insert ou remplacement) un patient de la projection.
+     * 
+     * @param patient Le patient à enregistrer
+     */
+    public void save(PatientDTO patient) {
+        mongoTemplate.save(patient, COLLECTION);
+    }
+
+    /**
+     * @return Tous les patients de la projection
+     */
+    public List<PatientDTO> findAll() {
+        return mongoTemplate.findAll(PatientDTO.class, COLLECTION);
+    }
+}
@@ -0,0 +1,334 @@
+package com.provider_service.services;
+
+import com.provider_service.dto.PatientDTO;
+import com.provider_service.enums.AccountStatus;
+import com.provider_service.repository.PatientProjectionRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * Stockage en mémoire, thread-safe et indexé, des patients reçus depuis Patient-Service.
+ * 
+ * Ce store :
+ * - Indexe les patients par ID (ConcurrentHashMap) : lecture en O(1)
+ * - Maintient des index secondaires par statut de compte et par provider assigné : filtres en O(résultat)
+ * - Sérialise les modifications d'un même patient (ConcurrentHashMap.compute)
+ * 
+ * Si la persistance est activée (provider.patients.persistence.enabled), chaque modification est
+ * écrite dans la collection PatientProjectionRepository.COLLECTION, et la projection est rechargée
+ * au démarrage : le service sert les patients immédiatement, sans resynchronisation complète.
+ * 
+ * Les patients stockés ne sont jamais modifiés en place : chaque mise à jour travaille sur une copie
+ * qui remplace l'ancienne version. Les lecteurs (threads HTTP) voient donc toujours un patient cohérent,
+ * et les écrivains (listeners RabbitMQ) ne provoquent jamais de ConcurrentModificationException.
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PatientStore {
+
+    /**
+     * Résultat d'une mise à jour : version précédente et nouvelle version du patient.
+     */
+    public record Change(PatientDTO previous, PatientDTO current) {
+    }
+
+    // ==================== CONSTANTES ====================
+    
+    /** Nombre de verrous de persistance (un patient est toujours associé au même verrou) */
+    private static final int PERSIST_LOCK_STRIPES = 64;
+
+    // ==================== CHAMPS ====================
+    
+    /** Patients par ID */
+    private final ConcurrentHashMap<String, PatientDTO> patientsById = new ConcurrentHashMap<>();
+    
+    /** Index secondaire : IDs des patients par statut de compte */
+    private final ConcurrentHashMap<AccountStatus, Set<String>> idsByStatus = new ConcurrentHashMap<>();
+    
+    /** Index secondaire : IDs des patients par provider assigné */
+    private final ConcurrentHashMap<String, Set<String>> idsByProvider = new ConcurrentHashMap<>();
+    
+    /** Index secondaire : IDs des patients non assignés */
+    private final Set<String> unassignedIds = ConcurrentHashMap.newKeySet();
+    
+    /** Persistance de la projection */
+    private final PatientProjectionRepository projectionRepository;
+    
+    /** Verrous de persistance, par hash de l'ID du patient */
+    private final Object[] persistLocks = newLocks(PERSIST_LOCK_STRIPES);
+    
+    @Value("${provider.patients.persistence.enabled:true}")
+    private boolean persistenceEnabled;
+
+    // ==================== INITIALISATION ====================
+    
+    /**
+     * Recharge la projection persistée au démarrage.
+     * En cas d'échec, le store démarre vide et la synchronisation complète prend le relais.
+     */
+    @PostConstruct
+    public void loadProjection() {
+        if (!persistenceEnabled) {
+            return;
+        }
+        try {
+            List<PatientDTO> persisted = projectionRepository.findAll();
+            for (PatientDTO patient : persisted) {
+                if (patient.getId() != null) {
+                    patientsById.compute(patient.getId(), (id, current) -> {
+                        reindex(id, current, patient);
+                        return patient;
+                    });
+                }
+            }
+            log.info("✅ Projection des patients rechargée : {} patients", patientsById.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Impossible de recharger la projection des patients : {}", e.getMessage());
+        }
+    }
+
+    // ==================== LECTURE ====================
+    
+    /**
+     * @param patientId L'ID du patient
+     * @return Le patient, ou null si inconnu
+     */
+    public PatientDTO get(String patientId) {
+        return patientId != null ? patientsById.get(patientId) : null;
+    }
+
+    /**
+     * @return Une copie de la liste de tous les patients
+     */
+    public List<PatientDTO> findAll() {
+        return new ArrayList<>(patientsById.values());
+    }
+
+    /**
+     * @param status Le statut de compte
+     * @return Les patients ayant ce statut
+     */
+    public List<PatientDTO> findByStatus(AccountStatus status) {
+        return resolve(idsByStatus.get(status), p -> p.getAccountStatus() == status);
+    }
+
+    /**
+     * @param providerId L'ID du provider
+     * @return Les patients assignés à ce provider
+     */
+    public List<PatientDTO> findByAssignedProvider(String providerId) {
+        if (providerId == null) {
+            return new ArrayList<>();
+        }
+        return resolve(idsByProvider.get(providerId), p -> providerId.equals(p.getAssignedProviderId()));
+    }
+
+    /**
+     * @return Les patients assignés à aucun provider
+     */
+    public List<PatientDTO> findUnassigned() {
+        return resolve(unassignedIds, p -> !isAssigned(p));
+    }
+
+    /**
+     * @return La date de modification la plus récente parmi les patients stockés, ou null si aucun
+     */
+    public LocalDateTime latestUpdatedAt() {
+        LocalDateTime latest = null;
+        for (PatientDTO patient : patientsById.values()) {
+            LocalDateTime updatedAt = patient.getUpdatedAt();
+            if (updatedAt != null && (latest == null || updatedAt.isAfter(latest))) {
+                latest = updatedAt;
+            }
+        }
+        return latest;
+    }
+
+    public boolean isEmpty() {
+        return patientsById.isEmpty();
+    }
+
+    public int size() {
+        return patientsById.size();
+    }
+
+    // ==================== ÉCRITURE ====================
+    
+    /**
+     * Ajoute ou remplace un patient.
+     * 
+     * @param patient Le patient à stocker (doit avoir un ID)
+     */
+    public void put(PatientDTO patient) {
+        compute(patient.getId(), current -> patient);
+    }
+
+    /**
+     * Calcule atomiquement la nouvelle version d'un patient.
+     * La fonction reçoit une copie de la version courante (ou null si le patient est inconnu)
+     * et retourne la nouvelle version, ou null pour ne rien changer.
+     * 
+     * @param patientId L'ID du patient
+     * @param remapping La fonction de mise à jour
+     * @return Le changement appliqué, ou null si rien n'a changé
+     */
+    public Change compute(String patientId, UnaryOperator<PatientDTO> remapping) {
+        if (patientId == null) {
+            log.warn("⚠️ Patient sans ID ignoré par le store");
+            return null;
+        }
+        Change[] change = new Change[1];
+        patientsById.compute(patientId, (id, current) -> {
+            PatientDTO next = remapping.apply(current != null ? new PatientDTO(current) : null);
+            if (next == null) {
+                return current;
+            }
+            next.setId(id);
+            reindex(id, current, next);
+            change[0] = new Change(current, next);
+            return next;
+        });
+        if (change[0] != null) {
+            persist(patientId);
+        }
+        return change[0];
+    }
+
+    /**
+     * Met à jour atomiquement un patient existant.
+     * 
+     * @param patientId L'ID du patient
+     * @param mutator La modification à appliquer (sur une copie)
+     * @return Le changement appliqué, ou null si le patient est inconnu
+     */
+    public Change update(String patientId, Consumer<PatientDTO> mutator) {
+        return updateIf(patientId, p -> true, mutator);
+    }
+
+    /**
+     * Met à jour atomiquement un patient existant si la condition est vérifiée sur sa version courante.
+     * 
+     * @param patientId L'ID du patient
+     * @param condition La condition à vérifier
+     * @param mutator La modification à appliquer (sur une copie)
+     * @return Le changement appliqué, ou null si le patient est inconnu ou si la condition est fausse
+     */
+    public Change updateIf(String patientId, Predicate<PatientDTO> condition, Consumer<PatientDTO> mutator) {
+        return compute(patientId, current -> {
+            if (current == null || !condition.test(current)) {
+                return null;
+            }
+            mutator.accept(current);
+            return current;
+        });
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+    
+    /**
+     * Écrit la version courante d'un patient dans la projection persistée.
+     * L'écriture se fait hors du verrou de l'entrée, mais sous le verrou de persistance du patient,
+     * pris avant de relire la dernière version : les écritures d'un même patient sont sérialisées,
+     * et la dernière à s'exécuter porte une version au moins aussi récente que les précédentes.
+     */
+    private void persist(String patientId) {
+        if (!persistenceEnabled) {
+            return;
+        }
+        synchronized (persistLocks[Math.floorMod(patientId.hashCode(), persistLocks.length)]) {
+            PatientDTO latest = patientsById.get(patientId);
+            if (latest == null) {
+                return;
+            }
+            try {
+                projectionRepository.save(latest);
+            } catch (Exception e) {
+                log.warn("⚠️ Impossible de persister le patient {} dans la projection : {}", patientId, e.getMessage());
+            }
+        }
+    }
+
+    private static Object[] newLocks(int count) {
+        Object[] locks = new Object[count];
+        for (int i = 0; i < count; i++) {
+            locks[i] = new Object();
+        }
+        return locks;
+    }
+    
+    /**
+     * Met à jour les index secondaires. Appelé sous le verrou de l'entrée (compute).
+     */
+    private void reindex(String id, PatientDTO previous, PatientDTO next) {
+        AccountStatus previousStatus = previous != null ? previous.getAccountStatus() : null;
+        if (previousStatus != next.getAccountStatus()) {
+            if (previousStatus != null) {
+                removeFromIndex(idsByStatus, previousStatus, id);
+            }
+            if (next.getAccountStatus() != null) {
+                idsByStatus.computeIfAbsent(next.getAccountStatus(), k -> ConcurrentHashMap.newKeySet()).add(id);
+            }
+        }
+        
+        String previousProvider = previous != null && isAssigned(previous) ? previous.getAssignedProviderId() : null;
+        String nextProvider = isAssigned(next) ? next.getAssignedProviderId() : null;
+        if (previous == null || !Objects.equals(previousProvider, nextProvider)) {
+            if (previousProvider != null) {
+                removeFromIndex(idsByProvider, previousProvider, id);
+            } else {
+                unassignedIds.remove(id);
+            }
+            if (nextProvider != null) {
+                idsByProvider.computeIfAbsent(nextProvider, k -> ConcurrentHashMap.newKeySet()).add(id);
+            } else {
+                unassignedIds.add(id);
+            }
+        }
+    }
+
+    private <K> void removeFromIndex(ConcurrentHashMap<K, Set<String>> index, K key, String id) {
+        Set<String> ids = index.get(key);
+        if (ids != null) {
+            ids.remove(id);
+        }
+    }
+
+    /**
+     * Résout une liste d'IDs en patients, en revérifiant le filtre
+     * (un index peut être momentanément en avance sur une mise à jour concurrente).
+     */
+    private List<PatientDTO> resolve(Set<String> ids, Predicate<PatientDTO> filter) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<PatientDTO> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            PatientDTO patient = patientsById.get(id);
+            if (patient != null && filter.test(patient)) {
+                result.add(patient);
+            }
+        }
+        return result;
+    }
+
+    private static boolean isAssigned(PatientDTO patient) {
+        return patient.getAssignedProviderId() != null && !patient.getAssignedProviderId().isEmpty();
+    }
+}
@@ -0,0 +1,245 @@
+package com.provider_service.services;
+
+import com.provider_service.dto.ProviderSummaryDTO;
+import com.provider_service.models.Provider;
+import com.provider_service.repository.ProviderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire de l'annuaire des providers, pour la recherche côté serveur.
+ *
+ * Cet index :
+ * - Indexe la spécialité, les sous-spécialités, la clinique, le nom complet et les licences
+ * - Indexe chaque mot par ses préfixes (edge n-grams) : recherche "au fil de la frappe"
+ * - Ignore la casse et les accents ("cardio" trouve "Cardiologie", "pediatrie" trouve "Pédiatrie")
+ * - Est chargé au démarrage puis mis à jour à chaque inscription ou complétion de profil
+ *
+ * Le coût d'une recherche dépend du nombre de termes et de providers correspondants,
+ * pas de la taille de l'annuaire.
+ *
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProviderDirectoryIndex {
+
+    /**
+     * Champs indexés. Le préfixe distingue les clés d'un même mot dans des champs différents.
+     */
+    private enum Field {
+        SPECIALTY("sp:"),
+        SUB_SPECIALTY("ss:"),
+        CLINIC("cl:"),
+        NAME("nm:"),
+        LICENSE("li:");
+
+        private final String keyPrefix;
+
+        Field(String keyPrefix) {
+            this.keyPrefix = keyPrefix;
+        }
+    }
+
+    // ==================== CONSTANTES ====================
+
+    /** Longueur maximale des préfixes indexés (les termes plus longs sont tronqués) */
+    private static final int MAX_PREFIX_LENGTH = 20;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<ProviderSummaryDTO> BY_NAME = Comparator.comparing(
+            ProviderSummaryDTO::getFullName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    // ==================== CHAMPS ====================
+
+    /** Résumés des providers indexés, par ID */
+    private final ConcurrentHashMap<String, ProviderSummaryDTO> providersById = new ConcurrentHashMap<>();
+
+    /** Index inversé : clé (champ + préfixe) -> IDs des providers */
+    private final ConcurrentHashMap<String, Set<String>> idsByKey = new ConcurrentHashMap<>();
+
+    /** Clés indexées pour chaque provider (pour le retirer de l'index lors d'une mise à jour) */
+    private final Map<String, Set<String>> keysById = new ConcurrentHashMap<>();
+
+    private final ProviderRepository providerRepository;
+
+    // ==================== INITIALISATION ====================
+
+    /**
+     * Construit l'index à partir de la collection providers.
+     * En cas d'échec, l'index démarre vide et se remplit au fil des inscriptions.
+     */
+    @PostConstruct
+    public void rebuild() {
+        try {
+            List<Provider> providers = providerRepository.findAll();
+            providers.forEach(this::index);
+            log.info("✅ Index de l'annuaire construit : {} providers, {} clés", providersById.size(), idsByKey.size());
+        } catch (Exception e) {
+            log.warn("⚠️ Impossible de construire l'index de l'annuaire : {}", e.getMessage());
+        }
+    }
+
+    // ==================== MISE À JOUR ====================
+
+    /**
+     * Ajoute ou réindexe un provider (après inscription ou complétion de profil).
+     *
+     * @param provider Le provider sauvegardé
+     */
+    public synchronized void index(Provider provider) {
+        String id = provider.getId();
+        if (id == null) {
+            return;
+        }
+        removeKeys(id);
+
+        Set<String> keys = new HashSet<>();
+        addKeys(keys, Field.SPECIALTY, provider.getSpecialty());
+        addKeys(keys, Field.SUB_SPECIALTY, provider.getSubSpecialties());
+        addKeys(keys, Field.CLINIC, provider.getPrimaryClinicName());
+        addKeys(keys, Field.NAME, provider.getFullName());
+        addKeys(keys, Field.LICENSE, provider.getStateLicenses());
+
+        providersById.put(id, ProviderSummaryDTO.from(provider));
+        for (String key : keys) {
+            idsByKey.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        keysById.put(id, keys);
+    }
+
+    // ==================== RECHERCHE ====================
+
+    /**
+     * Recherche des providers. Chaque mot est comparé par préfixe ; tous les mots doivent correspondre.
+     *
+     * @param query Texte libre, recherché dans tous les champs (peut être null)
+     * @param specialty Filtre sur la spécialité ou les sous-spécialités (peut être null)
+     * @param clinic Filtre sur la clinique (peut être null)
+     * @param limit Nombre maximum de résultats
+     * @return Les providers correspondants, triés par nom
+     */
+    public List<ProviderSummaryDTO> search(String query, String specialty, String clinic, int limit) {
+        Set<String> candidates = null;
+        for (String term : tokenize(query)) {
+            candidates = intersect(candidates, lookup(term, Field.values()));
+        }
+        for (String term : tokenize(specialty)) {
+            candidates = intersect(candidates, lookup(term, Field.SPECIALTY, Field.SUB_SPECIALTY));
+        }
+        for (String term : tokenize(clinic)) {
+            candidates = intersect(candidates, lookup(term, Field.CLINIC));
+        }
+
+        Collection<ProviderSummaryDTO> matches;
+        if (candidates == null) {
+            matches = providersById.values();
+        } else {
+            matches = new ArrayList<>(candidates.size());
+            for (String id : candidates) {
+                ProviderSummaryDTO provider = providersById.get(id);
+                if (provider != null) {
+                    matches.add(provider);
+                }
+            }
+        }
+        return matches.stream()
+                .sorted(BY_NAME)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * @return Le nombre de providers indexés
+     */
+    public int size() {
+        return providersById.size();
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+
+    private Set<String> lookup(String term, Field... fields) {
+        String prefix = term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term;
+        Set<String> ids = new HashSet<>();
+        for (Field field : fields) {
+            Set<String> matching = idsByKey.get(field.keyPrefix + prefix);
+            if (matching != null) {
+                ids.addAll(matching);
+            }
+        }
+        return ids;
+    }
+
+    private static Set<String> intersect(Set<String> candidates, Set<String> ids) {
+        if (candidates == null) {
+            return ids;
+        }
+        candidates.retainAll(ids);
+        return candidates;
+    }
+
+    private void removeKeys(String providerId) {
+        Set<String> previousKeys = keysById.remove(providerId);
+        if (previousKeys == null) {
+            return;
+        }
+        for (String key : previousKeys) {
+            idsByKey.computeIfPresent(key, (k, ids) -> {
+                ids.remove(providerId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    private static void addKeys(Set<String> keys, Field field, List<String> values) {
+        if (values != null) {
+            values.forEach(value -> addKeys(keys, field, value));
+        }
+    }
+
+    private static void addKeys(Set<String> keys, Field field, String value) {
+        for (String word : tokenize(value)) {
+            int maxLength = Math.min(word.length(), MAX_PREFIX_LENGTH);
+            for (int length = 1; length <= maxLength; length++) {
+                keys.add(field.keyPrefix + word.substring(0, length));
+            }
+        }
+    }
+
+    /**
+     * Découpe un texte en mots normalisés (minuscules, sans accents).
+     */
+    private static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> words = new ArrayList<>();
+        for (String word : SEPARATORS.split(normalized)) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+}
@@ -1,26 +1,39 @@
 package com.provider_service.services;
 
 import com.provider_service.config.RabbitConfig;
+import com.provider_service.dto.PatientAssignmentMessageDTO;
 import com.provider_service.dto.PatientDTO;
+import com.provider_service.dto.PatientStatusBatchMessageDTO;
 import com.provider_service.dto.PatientStatusUpdateMessageDTO;
+import com.provider_service.dto.PatientSyncChunk;
 import com.provider_service.dto.PatientSyncRequest;
 import com.provider_service.enums.AccountStatus;
+import com.provider_service.repository.PatientAssignmentRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Service pour gérer les patients reçus depuis Patient-Service via RabbitMQ.
  * 
  * Ce service :
  * - Écoute les messages RabbitMQ provenant de Patient-Service
- * - Maintient une liste locale des patients
+ * - Maintient une projection locale des patients (PatientStore, thread-safe et indexée)
  * - Fournit des méthodes pour gérer le statut des patients (activer, suspendre)
  * 
  * @author Provider-Service Team
@@ -38,20 +51,89 @@ public class ProviderPatientService {
     
     /** Valeur par défaut pour fullName si non disponible */
     private static final String DEFAULT_FULL_NAME = "N/A";
+    
+    /** Nombre de verrous pour les assignations */
+    private static final int ASSIGNMENT_LOCK_STRIPES = 64;
+    
+    /** Marque les mises à jour publiées par cette instance (ignorées à leur retour en mode fan-out) */
+    private static final MessagePostProcessor TAG_ORIGIN_INSTANCE = message -> {
+        message.getMessageProperties().setHeader(RabbitConfig.ORIGIN_INSTANCE_HEADER, RabbitConfig.INSTANCE_ID);
+        return message;
+    };
 
     // ==================== CHAMPS ====================
     
-    /** Liste en mémoire des patients reçus depuis Patient-Service */
-    private final List<PatientDTO> patients = new ArrayList<>();
+    /** Store en mémoire des patients reçus depuis Patient-Service */
+    private final PatientStore patientStore;
     
     /** RabbitTemplate pour publier les mises à jour de statut */
     private final RabbitTemplate rabbitTemplate;
     
+    /** Assignations patient -> provider persistées (source de vérité partagée entre instances) */
+    private final PatientAssignmentRepository assignmentRepository;
+    
     /** Flag pour éviter les synchronisations multiples simultanées */
     private volatile boolean syncInProgress = false;
     
     /** Timestamp de la dernière synchronisation */
     private volatile long lastSyncTime = 0;
+    
+    /**
+     * Watermark de synchronisation de cette instance : date de modification (côté Patient-Service)
+     * la plus récente reçue dans une réponse de synchronisation. Les synchronisations suivantes
+     * ne demandent que les patients modifiés depuis cette date.
+     */
+    private volatile LocalDateTime syncWatermark;
+    
+    /** Synchronisations en cours de réception, par syncId */
+    private final Map<String, SyncProgress> activeSyncs = new ConcurrentHashMap<>();
+    
+    /** Verrous des assignations, répartis par patient (striping) */
+    private final Lock[] assignmentLocks = createAssignmentLocks();
+    
+    /** Mode fan-out : chaque instance reçoit toutes les mises à jour sur ses propres queues exclusives */
+    @Value("${provider.patients.fanout.enabled:false}")
+    private boolean fanoutEnabled;
+
+    // ==================== INITIALISATION ====================
+    
+    /**
+     * Initialise le watermark à partir de la projection rechargée au démarrage.
+     */
+    @PostConstruct
+    public void initSyncWatermark() {
+        syncWatermark = patientStore.latestUpdatedAt();
+        log.info("Watermark de synchronisation initial : {}", syncWatermark != null ? syncWatermark : "aucun");
+    }
+
+    /**
+     * Aligne les assignations du store local sur la collection des assignations.
+     * Les assignations présentes uniquement dans la projection (avant l'introduction de la collection)
+     * y sont reportées, la première instance à le faire l'emportant.
+     */
+    @PostConstruct
+    public void loadAssignments() {
+        try {
+            Map<String, String> assignments = assignmentRepository.findAll();
+            int mirrored = 0;
+            for (PatientDTO patient : patientStore.findAll()) {
+                String owner = assignments.get(patient.getId());
+                String local = patient.getAssignedProviderId();
+                if (owner == null && local != null && !local.isEmpty()) {
+                    owner = assignmentRepository.assignIfAvailable(patient.getId(), local)
+                            ? local
+                            : assignmentRepository.findOwner(patient.getId());
+                }
+                if (!Objects.equals(owner, local)) {
+                    mirrorAssignment(patient.getId(), owner);
+                    mirrored++;
+                }
+            }
+            log.info("✅ Assignations chargées : {} assignations, {} patients réalignés", assignments.size(), mirrored);
+        } catch (Exception e) {
+            log.warn("⚠️ Impossible de charger les assignations : {}", e.getMessage());
+        }
+    }
 
     // ==================== MÉTHODES PUBLIQUES ====================
     
@@ -61,7 +143,7 @@ public class ProviderPatientService {
      * @param patient Le patient à ajouter
      */
     public void addPatient(PatientDTO patient) {
-        patients.add(patient);
+        patientStore.put(patient);
         log.debug("Patient ajouté : {}", patient.getEmail());
     }
 
@@ -77,13 +159,13 @@ public class ProviderPatientService {
         // Si la liste est vide et qu'on demande tous les patients, déclencher la synchronisation
         // Éviter les synchronisations multiples simultanées (attendre au moins 5 secondes entre deux)
         long currentTime = System.currentTimeMillis();
-        if (patients.isEmpty() && STATUS_ALL.equalsIgnoreCase(status) && 
+        if (patientStore.isEmpty() && STATUS_ALL.equalsIgnoreCase(status) && 
             !syncInProgress && (currentTime - lastSyncTime > 5000)) {
             log.info("Liste de patients vide, déclenchement automatique de la synchronisation...");
             syncInProgress = true;
             lastSyncTime = currentTime;
             try {
-                requestSyncAllPatients(providerId);
+                requestSyncAllPatients(providerId, true);
             } catch (Exception e) {
                 log.error("Erreur lors de la synchronisation automatique : {}", e.getMessage());
                 syncInProgress = false;
@@ -92,16 +174,14 @@ public class ProviderPatientService {
         
         // Si "ALL" est demandé, retourner tous les patients (avec information d'assignation)
         if (STATUS_ALL.equalsIgnoreCase(status)) {
-            return new ArrayList<>(patients);
+            return patientStore.findAll();
         }
 
         // Convertir le statut string en enum
         AccountStatus filterStatus = parseAccountStatus(status);
         
-        // Filtrer les patients par statut
-        return patients.stream()
-                .filter(p -> p.getAccountStatus() == filterStatus)
-                .collect(Collectors.toList());
+        // Filtrer les patients par statut (index secondaire)
+        return patientStore.findByStatus(filterStatus);
     }
     
     /**
@@ -111,9 +191,7 @@ public class ProviderPatientService {
      * @return Liste des patients assignés à ce provider
      */
     public List<PatientDTO> getAssignedPatients(String providerId) {
-        return patients.stream()
-                .filter(p -> providerId != null && providerId.equals(p.getAssignedProviderId()))
-                .collect(Collectors.toList());
+        return patientStore.findByAssignedProvider(providerId);
     }
     
     /**
@@ -122,54 +200,98 @@ public class ProviderPatientService {
      * @return Liste des patients non assignés
      */
     public List<PatientDTO> getUnassignedPatients() {
-        return patients.stream()
-                .filter(p -> p.getAssignedProviderId() == null || p.getAssignedProviderId().isEmpty())
-                .collect(Collectors.toList());
+        return patientStore.findUnassigned();
     }
     
     /**
-     * Assigne un patient à un provider.
+     * Assigne un patient à un provider, seulement s'il n'est pas assigné ou déjà assigné à ce provider.
+     * L'assignation est d'abord écrite dans MongoDB par une mise à jour conditionnelle (source de vérité
+     * partagée entre instances), puis reflétée dans le store local sous le verrou du patient.
      * 
      * @param patientId L'ID du patient
      * @param providerId L'ID du provider qui assigne
      * @return Le patient mis à jour, ou null si non trouvé
+     * @throws IllegalStateException si le patient est déjà assigné à un autre provider
      */
     public PatientDTO assignPatientToProvider(String patientId, String providerId) {
-        PatientDTO patient = getPatientById(null, patientId);
-        if (patient != null) {
-            String previousProviderId = patient.getAssignedProviderId();
-            patient.setAssignedProviderId(providerId);
-            log.info("✅ Patient {} assigné au provider {} (précédemment: {})", 
-                    patientId, providerId, previousProviderId != null ? previousProviderId : "non assigné");
-        } else {
-            log.warn("⚠️ Tentative d'assignation d'un patient inexistant : {}", patientId);
+        Lock lock = assignmentLock(patientId);
+        lock.lock();
+        try {
+            if (patientStore.get(patientId) == null) {
+                log.warn("⚠️ Tentative d'assignation d'un patient inexistant : {}", patientId);
+                return null;
+            }
+            if (!assignmentRepository.assignIfAvailable(patientId, providerId)) {
+                String owner = assignmentRepository.findOwner(patientId);
+                if (!providerId.equals(owner)) {
+                    mirrorAssignment(patientId, owner);
+                    log.warn("⚠️ Patient {} déjà assigné au provider {} (demandé par {})", patientId, owner, providerId);
+                    throw new IllegalStateException("Le patient " + patientId + " est déjà assigné à un autre provider.");
+                }
+            }
+            PatientDTO patient = mirrorAssignment(patientId, providerId);
+            publishAssignmentChange(patientId, providerId);
+            log.info("✅ Patient {} assigné au provider {}", patientId, providerId);
+            return patient;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Relit l'assignation d'un patient dans MongoDB et la reflète dans le store local
+     * (changement signalé par une autre instance en mode fan-out).
+     * 
+     * @param patientId L'ID du patient
+     * @return true si l'assignation locale a changé
+     */
+    public boolean refreshAssignment(String patientId) {
+        Lock lock = assignmentLock(patientId);
+        lock.lock();
+        try {
+            PatientDTO before = patientStore.get(patientId);
+            if (before == null) {
+                return false;
+            }
+            String previous = before.getAssignedProviderId();
+            String owner = assignmentRepository.findOwner(patientId);
+            mirrorAssignment(patientId, owner);
+            return !Objects.equals(previous, owner);
+        } finally {
+            lock.unlock();
         }
-        return patient;
     }
     
     /**
      * Désassigne un patient (retire l'assignation à un provider).
+     * L'assignation n'est retirée dans MongoDB que si elle appartient à ce provider.
      * 
      * @param patientId L'ID du patient
      * @param providerId L'ID du provider qui désassigne (vérification de sécurité)
-     * @return Le patient mis à jour, ou null si non trouvé
+     * @return Le patient mis à jour, ou null si non trouvé ou non assigné à ce provider
      */
     public PatientDTO unassignPatientFromProvider(String patientId, String providerId) {
-        PatientDTO patient = getPatientById(null, patientId);
-        if (patient != null) {
-            // Vérifier que le patient est bien assigné à ce provider
-            if (providerId.equals(patient.getAssignedProviderId())) {
-                patient.setAssignedProviderId(null);
-                log.info("✅ Patient {} désassigné du provider {}", patientId, providerId);
-            } else {
+        Lock lock = assignmentLock(patientId);
+        lock.lock();
+        try {
+            if (patientStore.get(patientId) == null) {
+                log.warn("⚠️ Tentative de désassignation d'un patient inexistant : {}", patientId);
+                return null;
+            }
+            if (!assignmentRepository.removeIfOwner(patientId, providerId)) {
+                String owner = assignmentRepository.findOwner(patientId);
+                mirrorAssignment(patientId, owner);
                 log.warn("⚠️ Tentative de désassignation d'un patient non assigné à ce provider : {} (assigné à: {})", 
-                        patientId, patient.getAssignedProviderId());
+                        patientId, owner);
                 return null;
             }
-        } else {
-            log.warn("⚠️ Tentative de désassignation d'un patient inexistant : {}", patientId);
+            PatientDTO patient = mirrorAssignment(patientId, null);
+            publishAssignmentChange(patientId, null);
+            log.info("✅ Patient {} désassigné du provider {}", patientId, providerId);
+            return patient;
+        } finally {
+            lock.unlock();
         }
-        return patient;
     }
 
     /**
@@ -180,10 +302,7 @@ public class ProviderPatientService {
      * @return Le patient trouvé, ou null si non trouvé
      */
     public PatientDTO getPatientById(String providerId, String patientId) {
-        return patients.stream()
-                .filter(p -> p.getId().equals(patientId))
-                .findFirst()
-                .orElse(null);
+        return patientStore.get(patientId);
     }
 
     /**
@@ -195,10 +314,9 @@ public class ProviderPatientService {
      * @param providerId L'ID du provider qui effectue la mise à jour
      */
     public void updatePatientStatus(String patientId, AccountStatus status, String providerId) {
-        PatientDTO patient = getPatientById(null, patientId);
-        if (patient != null) {
-            AccountStatus previousStatus = patient.getAccountStatus();
-            patient.setAccountStatus(status);
+        PatientStore.Change change = patientStore.update(patientId, p -> p.setAccountStatus(status));
+        if (change != null) {
+            AccountStatus previousStatus = change.previous().getAccountStatus();
             log.info("Statut du patient {} mis à jour par le provider {} : {}", patientId, providerId, status);
             
             // Publier la mise à jour de statut à Patient-Service via RabbitMQ
@@ -208,35 +326,82 @@ public class ProviderPatientService {
         }
     }
 
+    /**
+     * Met à jour le statut de plusieurs patients.
+     * Les changements sont publiés à Patient-Service en un seul message RabbitMQ.
+     * 
+     * @param patientIds Les IDs des patients à mettre à jour
+     * @param status Le nouveau statut à appliquer
+     * @param reason La raison (conservée pour une suspension), peut être null
+     * @param providerId L'ID du provider qui effectue la mise à jour
+     * @return Les patients mis à jour (les IDs inconnus sont ignorés)
+     */
+    public List<PatientDTO> updatePatientsStatus(List<String> patientIds, AccountStatus status,
+                                                 String reason, String providerId) {
+        List<PatientDTO> updated = new ArrayList<>(patientIds.size());
+        List<PatientStatusUpdateMessageDTO> messages = new ArrayList<>(patientIds.size());
+        
+        for (String patientId : new LinkedHashSet<>(patientIds)) {
+            PatientStore.Change change = patientStore.update(patientId, p -> {
+                p.setAccountStatus(status);
+                if (status == AccountStatus.SUSPENDED) {
+                    p.setSuspensionReason(reason);
+                }
+            });
+            if (change == null) {
+                log.warn("Tentative de mise à jour du statut d'un patient inexistant : {}", patientId);
+                continue;
+            }
+            AccountStatus previousStatus = change.previous().getAccountStatus();
+            updated.add(change.current());
+            messages.add(new PatientStatusUpdateMessageDTO(
+                    patientId,
+                    providerId,
+                    status.name(),
+                    previousStatus != null ? previousStatus.name() : "UNKNOWN",
+                    reason
+            ));
+        }
+        
+        log.info("Statut {} appliqué par le provider {} à {} patient(s) sur {}", 
+                status, providerId, updated.size(), patientIds.size());
+        if (!messages.isEmpty()) {
+            publishStatusBatch(providerId, messages);
+        }
+        return updated;
+    }
+
     /**
      * Ajoute un patient s'il n'existe pas, ou met à jour s'il existe déjà.
      * Préserve l'assignation existante lors de la mise à jour.
+     * Une version plus ancienne que celle du store (livraison en double ou en retard) est ignorée.
      * 
      * @param patient Le patient à ajouter ou mettre à jour
      */
     public void addOrUpdatePatient(PatientDTO patient) {
-        PatientDTO existing = findPatientById(patient.getId());
-        
-        if (existing != null) {
-            // Préserver l'assignation existante si le patient mis à jour n'a pas d'assignation
-            String preservedAssignment = existing.getAssignedProviderId();
-            
-            // Mise à jour des champs existants
-            updatePatientFields(existing, patient);
-            
-            // Si le patient mis à jour n'a pas d'assignation, préserver l'ancienne
-            if (patient.getAssignedProviderId() == null && preservedAssignment != null) {
-                existing.setAssignedProviderId(preservedAssignment);
+        PatientStore.Change change = patientStore.compute(patient.getId(), existing -> {
+            if (existing == null) {
+                // Ajout d'un nouveau patient (non assigné par défaut)
+                return patient;
             }
-            
+            if (isOlderThan(patient, existing)) {
+                log.debug("Version obsolète du patient {} ignorée ({} < {})", 
+                        patient.getId(), patient.getUpdatedAt(), existing.getUpdatedAt());
+                return null;
+            }
+            // Mise à jour des champs existants (l'assignation existante est préservée
+            // si le patient mis à jour n'en fournit pas)
+            updatePatientFields(existing, patient);
+            return existing;
+        });
+        
+        if (change == null) {
+            return;
+        }
+        if (change.previous() != null) {
             log.debug("Patient mis à jour : {} (assigné à: {})", 
-                    patient.getId(), existing.getAssignedProviderId());
+                    patient.getId(), change.current().getAssignedProviderId());
         } else {
-            // Ajout d'un nouveau patient (non assigné par défaut)
-            if (patient.getAssignedProviderId() == null) {
-                patient.setAssignedProviderId(null); // Explicitement non assigné
-            }
-            patients.add(patient);
             log.debug("Nouveau patient ajouté : {} (non assigné)", patient.getId());
         }
     }
@@ -250,18 +415,17 @@ public class ProviderPatientService {
      * @return Le patient activé, ou null si non trouvé
      */
     public PatientDTO activatePatient(String patientId, String providerId) {
-        PatientDTO patient = getPatientById(null, patientId);
-        if (patient != null) {
-            AccountStatus previousStatus = patient.getAccountStatus();
-            patient.setAccountStatus(AccountStatus.ACTIVE);
+        PatientStore.Change change = patientStore.update(patientId, p -> p.setAccountStatus(AccountStatus.ACTIVE));
+        if (change != null) {
+            AccountStatus previousStatus = change.previous().getAccountStatus();
             log.info("Patient activé par le provider {} : {}", providerId, patientId);
             
             // Publier la mise à jour de statut à Patient-Service via RabbitMQ
             publishStatusUpdate(patientId, providerId, previousStatus, AccountStatus.ACTIVE, null);
-        } else {
-            log.warn("Tentative d'activation d'un patient inexistant : {}", patientId);
+            return change.current();
         }
-        return patient;
+        log.warn("Tentative d'activation d'un patient inexistant : {}", patientId);
+        return null;
     }
 
     /**
@@ -274,30 +438,74 @@ public class ProviderPatientService {
      * @return Le patient suspendu, ou null si non trouvé
      */
     public PatientDTO suspendPatient(String patientId, String reason, String providerId) {
-        PatientDTO patient = getPatientById(null, patientId);
-        if (patient != null) {
-            AccountStatus previousStatus = patient.getAccountStatus();
-            patient.setAccountStatus(AccountStatus.SUSPENDED);
-            patient.setSuspensionReason(reason);
+        PatientStore.Change change = patientStore.update(patientId, p -> {
+            p.setAccountStatus(AccountStatus.SUSPENDED);
+            p.setSuspensionReason(reason);
+        });
+        if (change != null) {
+            AccountStatus previousStatus = change.previous().getAccountStatus();
             log.info("Patient suspendu par le provider {} : {} - Raison : {}", providerId, patientId, reason);
             
             // Publier la mise à jour de statut à Patient-Service via RabbitMQ
             publishStatusUpdate(patientId, providerId, previousStatus, AccountStatus.SUSPENDED, reason);
-        } else {
-            log.warn("Tentative de suspension d'un patient inexistant : {}", patientId);
+            return change.current();
+        }
+        log.warn("Tentative de suspension d'un patient inexistant : {}", patientId);
+        return null;
+    }
+
+    /**
+     * Applique localement une mise à jour de statut publiée par une autre instance (mode fan-out).
+     * Rien n'est republié : Patient-Service reçoit déjà le message d'origine.
+     * 
+     * @param update La mise à jour de statut
+     * @return true si le store a été modifié
+     */
+    public boolean applyStatusUpdate(PatientStatusUpdateMessageDTO update) {
+        if (update.getPatientId() == null || update.getNewStatus() == null) {
+            return false;
         }
-        return patient;
+        AccountStatus status = parseAccountStatus(update.getNewStatus());
+        PatientStore.Change change = patientStore.updateIf(update.getPatientId(),
+                p -> p.getAccountStatus() != status 
+                        || (status == AccountStatus.SUSPENDED && !Objects.equals(p.getSuspensionReason(), update.getReason())),
+                p -> {
+                    p.setAccountStatus(status);
+                    if (status == AccountStatus.SUSPENDED) {
+                        p.setSuspensionReason(update.getReason());
+                    }
+                });
+        return change != null;
+    }
+
+    /**
+     * Applique localement un lot de mises à jour de statut publié par une autre instance (mode fan-out).
+     * 
+     * @param batch Le lot de mises à jour
+     * @return Le nombre de patients modifiés dans le store
+     */
+    public int applyStatusBatch(PatientStatusBatchMessageDTO batch) {
+        if (batch.getUpdates() == null) {
+            return 0;
+        }
+        int applied = 0;
+        for (PatientStatusUpdateMessageDTO update : batch.getUpdates()) {
+            if (applyStatusUpdate(update)) {
+                applied++;
+            }
+        }
+        return applied;
     }
 
     // ==================== LISTENER RABBITMQ ====================
     
     /**
-     * Écoute les messages RabbitMQ provenant de Patient-Service.
-     * Reçoit les nouveaux patients inscrits et les ajoute/met à jour dans la liste locale.
+     * Traite un patient reçu depuis Patient-Service (nouveau patient ou profil mis à jour)
+     * et l'ajoute/met à jour dans la liste locale.
+     * Appelé par le pipeline PatientSyncListener (et par le listener fan-out).
      * 
      * @param patient Le patient reçu depuis Patient-Service
      */
-    @RabbitListener(queues = RabbitConfig.PATIENT_SYNC_QUEUE)
     public void receivePatientFromQueue(PatientDTO patient) {
         log.info("Réception d'un patient depuis RabbitMQ : {}", patient.getEmail());
         
@@ -313,53 +521,107 @@ public class ProviderPatientService {
 
     /**
      * Écoute la réponse de synchronisation des patients depuis Patient-Service.
-     * Reçoit la liste complète des patients existants et les ajoute à la liste locale.
+     * La réponse arrive en chunks de taille fixe ; chaque chunk est appliqué dès sa réception.
+     * La synchronisation est terminée quand tous les chunks, jusqu'au dernier, ont été reçus
+     * (ils peuvent être traités dans le désordre par plusieurs consommateurs).
+     * Comme pour addOrUpdatePatient, une version plus ancienne que celle du store est ignorée.
      * 
-     * @param patientList La liste des patients reçus depuis Patient-Service
+     * @param chunk Un chunk de la réponse de synchronisation
      */
     @RabbitListener(queues = RabbitConfig.PATIENT_SYNC_RESPONSE_QUEUE)
-    public void receiveSyncResponse(List<PatientDTO> patientList) {
-        log.info("Réception de la réponse de synchronisation : {} patients", patientList.size());
+    public void receiveSyncResponse(PatientSyncChunk chunk) {
+        List<PatientDTO> patientList = chunk.getPatients() != null ? chunk.getPatients() : List.of();
+        String syncId = chunk.getSyncId() != null ? chunk.getSyncId() : "unknown";
+        log.debug("Réception du chunk {} de la synchronisation {} : {} patients{}", 
+                chunk.getSequence(), syncId, patientList.size(), chunk.isLast() ? " (dernier)" : "");
         
         int addedCount = 0;
         int updatedCount = 0;
+        LocalDateTime watermark = null;
         
         for (PatientDTO patient : patientList) {
+            if (patient.getUpdatedAt() != null && (watermark == null || patient.getUpdatedAt().isAfter(watermark))) {
+                watermark = patient.getUpdatedAt();
+            }
+            
             // Construire fullName à partir de firstName et lastName si nécessaire
             buildFullNameIfMissing(patient);
             
-            PatientDTO existing = findPatientById(patient.getId());
-            if (existing != null) {
+            PatientStore.Change change = patientStore.compute(patient.getId(), existing -> {
+                if (existing == null) {
+                    // Ajout d'un nouveau patient
+                    return patient;
+                }
+                // Un chunk lu avant une mise à jour en direct peut arriver après elle
+                if (isOlderThan(patient, existing)) {
+                    log.debug("Version obsolète du patient {} ignorée dans la synchronisation {} ({} < {})", 
+                            patient.getId(), syncId, patient.getUpdatedAt(), existing.getUpdatedAt());
+                    return null;
+                }
                 // Mise à jour des champs existants
                 updatePatientFields(existing, patient);
+                return existing;
+            });
+            if (change == null) {
+                continue;
+            }
+            if (change.previous() != null) {
                 updatedCount++;
             } else {
-                // Ajout d'un nouveau patient
-                patients.add(patient);
                 addedCount++;
             }
         }
         
-        log.info("✅ Synchronisation terminée : {} patients ajoutés, {} patients mis à jour", 
-                addedCount, updatedCount);
+        SyncProgress progress = activeSyncs.computeIfAbsent(syncId, id -> new SyncProgress());
+        if (!progress.record(chunk, addedCount, updatedCount, watermark)) {
+            return;
+        }
+        activeSyncs.remove(syncId);
+        
+        // Le watermark n'avance qu'une fois la synchronisation complète reçue
+        advanceSyncWatermark(progress.getWatermark());
+        
+        log.info("✅ Synchronisation {} terminée : {} chunk(s), {} patients ajoutés, {} patients mis à jour (watermark : {})", 
+                syncId, progress.getChunkCount(), progress.getAddedCount(), progress.getUpdatedCount(), syncWatermark);
         
         // Réinitialiser le flag de synchronisation
         syncInProgress = false;
     }
 
     /**
-     * Demande la synchronisation de tous les patients existants depuis Patient-Service.
-     * Envoie une requête via RabbitMQ pour récupérer tous les patients.
+     * Demande la synchronisation incrémentale des patients depuis Patient-Service :
+     * seuls les patients modifiés depuis le watermark de cette instance sont renvoyés.
      * 
      * @param providerId L'ID du provider qui demande la synchronisation
      */
     public void requestSyncAllPatients(String providerId) {
+        requestSyncAllPatients(providerId, false);
+    }
+
+    /**
+     * Demande la synchronisation des patients depuis Patient-Service.
+     * Envoie une requête via RabbitMQ, complète ou incrémentale (depuis le watermark).
+     * 
+     * @param providerId L'ID du provider qui demande la synchronisation
+     * @param full true pour forcer une synchronisation complète
+     */
+    public void requestSyncAllPatients(String providerId, boolean full) {
         try {
+            // Oublier les synchronisations dont le dernier chunk n'est jamais arrivé
+            long now = System.currentTimeMillis();
+            activeSyncs.values().removeIf(progress -> progress.isStale(now));
+            
+            LocalDateTime since = full ? null : syncWatermark;
             PatientSyncRequest syncRequest = new PatientSyncRequest(
                     java.util.UUID.randomUUID().toString(),
                     providerId,
-                    "ALL"
+                    "ALL",
+                    since
             );
+            if (fanoutEnabled) {
+                // La réponse revient sur la queue exclusive de cette instance
+                syncRequest.setReplyTo(RabbitConfig.instanceSyncResponseRoutingKey());
+            }
             
             rabbitTemplate.convertAndSend(
                     RabbitConfig.PATIENT_EXCHANGE,
@@ -367,7 +629,8 @@ public class ProviderPatientService {
                     syncRequest
             );
             
-            log.info("✅ Demande de synchronisation envoyée par le provider {} pour tous les patients", providerId);
+            log.info("✅ Demande de synchronisation envoyée par le provider {} pour tous les patients ({})", 
+                    providerId, since != null ? "depuis " + since : "complète");
         } catch (Exception e) {
             log.error("❌ Erreur lors de l'envoi de la demande de synchronisation : {}", e.getMessage(), e);
             throw new RuntimeException("Erreur lors de la synchronisation des patients", e);
@@ -392,19 +655,6 @@ public class ProviderPatientService {
         }
     }
 
-    /**
-     * Trouve un patient par son ID dans la liste.
-     * 
-     * @param patientId L'ID du patient à rechercher
-     * @return Le patient trouvé, ou null si non trouvé
-     */
-    private PatientDTO findPatientById(String patientId) {
-        return patients.stream()
-                .filter(p -> p.getId().equals(patientId))
-                .findFirst()
-                .orElse(null);
-    }
-
     /**
      * Met à jour les champs d'un patient existant avec les valeurs d'un nouveau patient.
      * Seuls les champs non-null du nouveau patient sont mis à jour.
@@ -427,6 +677,7 @@ public class ProviderPatientService {
         if (updated.getZipCode() != null) existing.setZipCode(updated.getZipCode());
         if (updated.getCountry() != null) existing.setCountry(updated.getCountry());
         if (updated.getDateOfBirth() != null) existing.setDateOfBirth(updated.getDateOfBirth());
+        if (updated.getUpdatedAt() != null) existing.setUpdatedAt(updated.getUpdatedAt());
         // Mettre à jour l'assignation seulement si elle est explicitement fournie
         if (updated.getAssignedProviderId() != null) {
             existing.setAssignedProviderId(updated.getAssignedProviderId());
@@ -485,7 +736,8 @@ public class ProviderPatientService {
             rabbitTemplate.convertAndSend(
                     RabbitConfig.PATIENT_EXCHANGE,
                     RabbitConfig.PATIENT_STATUS_ROUTING_KEY,
-                    message
+                    message,
+                    TAG_ORIGIN_INSTANCE
             );
             
             log.info("✅ Mise à jour de statut publiée pour le patient {} par le provider {} : {} -> {}", 
@@ -495,4 +747,144 @@ public class ProviderPatientService {
                     patientId, e.getMessage(), e);
         }
     }
+
+    /**
+     * Publie un lot de mises à jour de statut à Patient-Service via RabbitMQ (un seul message).
+     * 
+     * @param providerId L'ID du provider qui effectue les mises à jour
+     * @param messages Les mises à jour de statut
+     */
+    private void publishStatusBatch(String providerId, List<PatientStatusUpdateMessageDTO> messages) {
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitConfig.PATIENT_EXCHANGE,
+                    RabbitConfig.PATIENT_STATUS_BATCH_ROUTING_KEY,
+                    new PatientStatusBatchMessageDTO(providerId, messages),
+                    TAG_ORIGIN_INSTANCE
+            );
+            
+            log.info("✅ Lot de {} mise(s) à jour de statut publié par le provider {}", messages.size(), providerId);
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la publication du lot de {} mise(s) à jour de statut : {}", 
+                    messages.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Signale un changement d'assignation aux autres instances (mode fan-out uniquement).
+     * 
+     * @param patientId L'ID du patient
+     * @param providerId Le provider assigné, ou null après une désassignation
+     */
+    private void publishAssignmentChange(String patientId, String providerId) {
+        if (!fanoutEnabled) {
+            return;
+        }
+        try {
+            rabbitTemplate.convertAndSend(
+                    RabbitConfig.PATIENT_EXCHANGE,
+                    RabbitConfig.PATIENT_ASSIGNMENT_ROUTING_KEY,
+                    new PatientAssignmentMessageDTO(patientId, providerId),
+                    TAG_ORIGIN_INSTANCE
+            );
+        } catch (Exception e) {
+            log.error("❌ Erreur lors de la publication du changement d'assignation du patient {} : {}", 
+                    patientId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Indique si une version reçue d'un patient est plus ancienne que celle du store.
+     * Sans date de modification d'un côté ou de l'autre, la version reçue est appliquée.
+     */
+    private static boolean isOlderThan(PatientDTO received, PatientDTO existing) {
+        return received.getUpdatedAt() != null 
+                && existing.getUpdatedAt() != null 
+                && received.getUpdatedAt().isBefore(existing.getUpdatedAt());
+    }
+
+    /**
+     * Reflète dans le store local l'assignation lue ou écrite dans MongoDB.
+     * 
+     * @param patientId L'ID du patient
+     * @param providerId L'ID du provider assigné, ou null si non assigné
+     * @return La version courante du patient, ou null s'il est inconnu
+     */
+    private PatientDTO mirrorAssignment(String patientId, String providerId) {
+        PatientStore.Change change = patientStore.updateIf(patientId,
+                p -> !Objects.equals(p.getAssignedProviderId(), providerId),
+                p -> p.setAssignedProviderId(providerId));
+        return change != null ? change.current() : patientStore.get(patientId);
+    }
+
+    /**
+     * Verrou de l'assignation d'un patient (verrous répartis par hash de l'ID).
+     */
+    private Lock assignmentLock(String patientId) {
+        return assignmentLocks[Math.floorMod(patientId.hashCode(), assignmentLocks.length)];
+    }
+
+    /**
+     * Avance le watermark de synchronisation, sans jamais le faire reculer.
+     * 
+     * @param watermark La date de modification la plus récente reçue
+     */
+    private synchronized void advanceSyncWatermark(LocalDateTime watermark) {
+        if (watermark != null && (syncWatermark == null || watermark.isAfter(syncWatermark))) {
+            syncWatermark = watermark;
+        }
+    }
+
+    private static Lock[] createAssignmentLocks() {
+        Lock[] locks = new Lock[ASSIGNMENT_LOCK_STRIPES];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+
+    // ==================== SUIVI DES SYNCHRONISATIONS ====================
+    
+    /**
+     * État de réception d'une synchronisation découpée en chunks.
+     */
+    private static final class SyncProgress {
+        
+        /** Durée après laquelle une synchronisation incomplète est abandonnée */
+        private static final long STALE_AFTER_MS = 10 * 60 * 1000L;
+        
+        private final long startedAt = System.currentTimeMillis();
+        private int receivedChunks;
+        private int expectedChunks = -1;
+        private int addedCount;
+        private int updatedCount;
+        private LocalDateTime watermark;
+        
+        /**
+         * Enregistre un chunk appliqué.
+         * 
+         * @return true si tous les chunks de la synchronisation ont été reçus
+         */
+        synchronized boolean record(PatientSyncChunk chunk, int added, int updated, LocalDateTime chunkWatermark) {
+            receivedChunks++;
+            addedCount += added;
+            updatedCount += updated;
+            if (chunkWatermark != null && (watermark == null || chunkWatermark.isAfter(watermark))) {
+                watermark = chunkWatermark;
+            }
+            if (chunk.isLast()) {
+                expectedChunks = chunk.getSequence() + 1;
+            }
+            return expectedChunks > 0 && receivedChunks >= expectedChunks;
+        }
+        
+        boolean isStale(long now) {
+            return now - startedAt > STALE_AFTER_MS;
+        }
+        
+        synchronized int getChunkCount() { return receivedChunks; }
+        synchronized int getAddedCount() { return addedCount; }
+        synchronized int getUpdatedCount() { return updatedCount; }
+        synchronized LocalDateTime getWatermark() { return watermark; }
+    }
 }
@@ -22,6 +22,12 @@ public class ProviderService implements UserDetailsService {
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 	
+	@Autowired
+	private UserDetailsCache userDetailsCache;
+	
+	@Autowired
+	private ProviderDirectoryIndex providerDirectoryIndex;
+	
 	@Override
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 		return providerRepository.findByEmail(email)
@@ -37,7 +43,9 @@ public class ProviderService implements UserDetailsService {
 		provider.setEmail(email);
 		provider.setPassword(passwordEncoder.encode(password));
 
-		return providerRepository.save(provider);
+		Provider savedProvider = providerRepository.save(provider);
+		providerDirectoryIndex.index(savedProvider);
+		return savedProvider;
 	}
 	
 	public Provider registerProvider(RegisterRequest request) {
@@ -63,7 +71,9 @@ public class ProviderService implements UserDetailsService {
 			provider.setSpecialty(request.getSpecialty());
 		}
 
-		return providerRepository.save(provider);
+		Provider savedProvider = providerRepository.save(provider);
+		providerDirectoryIndex.index(savedProvider);
+		return savedProvider;
 	}
 	
 	// Complete provider profile (provider fills this)
@@ -82,6 +92,9 @@ public class ProviderService implements UserDetailsService {
 		provider.setContactNumber(request.getContactNumber());
 
 		Provider savedProvider = providerRepository.save(provider);
+		// Le principal en cache doit refléter le profil complété
+		userDetailsCache.evict(savedProvider.getEmail());
+		providerDirectoryIndex.index(savedProvider);
 
 		return savedProvider;
 	}
@@ -0,0 +1,122 @@
+package com.provider_service.benchmark;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.provider_service.services.JwtService;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Benchmark JMH de la validation des tokens JWT : débit (ops/s) et, avec le profiler GC,
+ * allocation (gc.alloc.rate.norm, octets/op).
+ * Compare l'ancienne validation (clé et parser reconstruits, trois parsings par token)
+ * à la validation actuelle de JwtService (clé et parser partagés, un seul parsing).
+ * 
+ * Ce n'est pas un test JUnit (il n'est pas exécuté par "mvn test"). Pour le lancer
+ * (JVM forkées, profiler GC activé par main) :
+ * <pre>
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java \
+ *     -Dexec.args="-cp %classpath com.provider_service.benchmark.JwtServiceBenchmark"
+ * </pre>
+ * 
+ * @author Provider-Service Team
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "mySecretKey123456789012345678901234567890";
+
+    private JwtService jwtService;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        jwtService.init();
+
+        user = User.withUsername("youssef.benali@example.com")
+                .password("unused")
+                .roles("PROVIDER")
+                .build();
+        token = Jwts.builder()
+                .setClaims(Map.of("role", "PROVIDER", "providerId", "507f1f77bcf86cd799439013"))
+                .setSubject(user.getUsername())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 3_600_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes()), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    // Les résultats sont retournés à JMH, qui les consomme (pas d'élimination de code mort)
+
+    @Benchmark
+    public boolean legacyIsTokenValid() {
+        // Reproduit l'ancien chemin du filtre : extractUsername, puis isTokenValid
+        // (extractUsername + extractExpiration), avec une clé et un parser par claim extrait
+        String filterUsername = legacyParse(token).getSubject();
+        String username = legacyParse(token).getSubject();
+        return filterUsername != null
+                && username.equals(user.getUsername())
+                && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+
+    @Benchmark
+    public Claims extractAllClaims() {
+        return jwtService.extractAllClaims(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+
+    /**
+     * Lance les benchmarks avec le profiler GC (équivalent de "-prof gc").
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,42 @@
+package com.request_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Configuration des traitements asynchrones de Request-Service.
+ * 
+ * @author Request-Service Team
+ * @version 1.0
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    /** Nom de l'executor dédié au pré-rendu des PDF de certificats */
+    public static final String CERTIFICATE_PDF_EXECUTOR = "certificatePdfExecutor";
+
+    /**
+     * Executor pour le pré-rendu des PDF.
+     * Le pré-rendu n'est qu'une optimisation : si la file est pleine, la tâche est abandonnée
+     * et le PDF sera généré à la demande lors de l'impression.
+     */
+    @Bean(name = CERTIFICATE_PDF_EXECUTOR)
+    public ThreadPoolTaskExecutor certificatePdfExecutor(
+            @Value("${certificate.pdf.prerender.threads:2}") int threads,
+            @Value("${certificate.pdf.prerender.queue-capacity:500}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("certificate-pdf-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.DiscardPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
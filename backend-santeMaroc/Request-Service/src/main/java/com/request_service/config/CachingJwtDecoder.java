@@ -0,0 +1,119 @@
+package com.request_service.config;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JwtDecoder qui met en cache les tokens déjà vérifiés.
+ * 
+ * La vérification de signature et le parsing JSON ne sont faits qu'une fois par token et par instance :
+ * les appels suivants avec le même token renvoient le Jwt en cache jusqu'à son expiration ("exp"),
+ * sans dépasser maxTtlMs. Le cache est indexé par le hash SHA-256 du token (le token brut n'est pas conservé),
+ * borné à maxSize entrées, et les échecs de validation ne sont jamais mis en cache.
+ * 
+ * Le cache ne sert pas à révoquer des tokens : un token retiré serait simplement revérifié et accepté.
+ * Ses métriques sont exposées par snapshot().
+ * 
+ * @author Request-Service Team
+ * @version 1.0
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final int maxSize;
+    private final long maxTtlMs;
+
+    private final Map<String, CachedJwt> tokens = new ConcurrentHashMap<>();
+
+    // Métriques
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingJwtDecoder(JwtDecoder delegate, int maxSize, long maxTtlMs) {
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+        this.maxTtlMs = maxTtlMs;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = hash(token);
+        Instant now = Instant.now();
+
+        CachedJwt cached = tokens.get(key);
+        if (cached != null) {
+            if (cached.expiresAt().isAfter(now)) {
+                hits.increment();
+                return cached.jwt();
+            }
+            tokens.remove(key, cached);
+        }
+
+        misses.increment();
+        Jwt jwt = delegate.decode(token); // Lève une JwtException si le token est invalide : rien n'est mis en cache
+
+        Instant expiresAt = now.plusMillis(maxTtlMs);
+        if (jwt.getExpiresAt() != null && jwt.getExpiresAt().isBefore(expiresAt)) {
+            expiresAt = jwt.getExpiresAt();
+        }
+        if (expiresAt.isAfter(now)) {
+            makeRoom(now);
+            tokens.put(key, new CachedJwt(jwt, expiresAt));
+        }
+        return jwt;
+    }
+
+    // ==================== MÉTRIQUES ====================
+
+    /**
+     * @return Taille, succès, échecs, taux de succès et évictions du cache
+     */
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("tokens", tokens.size());
+        snapshot.put("hits", hitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRatio", hitCount + missCount > 0 ? hitCount / (double) (hitCount + missCount) : 0.0);
+        snapshot.put("evictions", evictions.sum());
+        return snapshot;
+    }
+
+    // ==================== MÉTHODES PRIVÉES ====================
+
+    private void makeRoom(Instant now) {
+        if (tokens.size() < maxSize) {
+            return;
+        }
+        int before = tokens.size();
+        tokens.values().removeIf(cached -> !cached.expiresAt().isAfter(now));
+        if (tokens.size() >= maxSize) {
+            tokens.clear();
+        }
+        evictions.add(Math.max(0, before - tokens.size()));
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 non disponible", e);
+        }
+    }
+
+    private record CachedJwt(Jwt jwt, Instant expiresAt) {}
+}
@@ -21,10 +21,20 @@ public class JwtConfig {
     @Value("${jwt.secret}")
     private String jwtSecret;
 
+    @Value("${jwt.decoder-cache.max-size:10000}")
+    private int cacheMaxSize;
+
+    @Value("${jwt.decoder-cache.max-ttl-ms:300000}")
+    private long cacheMaxTtlMs;
+
+    /**
+     * JwtDecoder HS256 avec cache des tokens vérifiés (voir CachingJwtDecoder).
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
+    public CachingJwtDecoder jwtDecoder() {
         SecretKey secretKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
-        return NimbusJwtDecoder.withSecretKey(secretKey).build();
+        JwtDecoder decoder = NimbusJwtDecoder.withSecretKey(secretKey).build();
+        return new CachingJwtDecoder(decoder, cacheMaxSize, cacheMaxTtlMs);
     }
 }
 
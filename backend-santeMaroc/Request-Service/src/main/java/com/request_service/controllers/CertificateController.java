@@ -1,9 +1,11 @@
 package com.request_service.controllers;
 
+import com.request_service.dto.CertificateSummaryDTO;
 import com.request_service.dto.CreateCertificateRequest;
+import com.request_service.dto.CursorPage;
 import com.request_service.models.Certificate;
-import com.request_service.repository.CertificateRepository;
 import com.request_service.services.CertificatePdfService;
+import com.request_service.services.CertificatePdfStorageService;
 import com.request_service.services.CertificateService;
 import com.request_service.services.DataEnrichmentService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,7 +20,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -30,7 +32,6 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -48,19 +49,70 @@ public class CertificateController {
 
     private final CertificateService certificateService;
     private final CertificatePdfService certificatePdfService;
+    private final CertificatePdfStorageService certificatePdfStorageService;
     private final DataEnrichmentService dataEnrichmentService;
     
-    @Autowired
-    CertificateRepository certificateRepository;
-    
+    /**
+     * Liste paginée (par curseur) des résumés de tous les certificats.
+     */
     @GetMapping("/all")
-    public List<Certificate> getAllCertificates() {
-    	return certificateRepository.findAll();
+    @Tag(name = "📄 Certificate Endpoints", description = "Endpoints pour gérer et imprimer les certificats médicaux")
+    @Operation(
+            summary = "Lister les certificats (résumés paginés)",
+            description = "Retourne les résumés des certificats du plus récent au plus ancien. " +
+                         "Pour la page suivante, renvoyer la valeur de `nextCursor` dans le paramètre `cursor`.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de certificats récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur de pagination invalide"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié")
+    })
+    public ResponseEntity<?> getAllCertificates(
+            @Parameter(description = "Curseur renvoyé par la page précédente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Taille de page (défaut 20, max 100)")
+            @RequestParam(required = false) Integer size) {
+        return getCertificatePage(null, cursor, size);
     }
     
+    /**
+     * Liste paginée (par curseur) des résumés des certificats d'un patient.
+     */
     @GetMapping("/{id}/patient")
-    public List<Certificate> getPatientCertificates(@PathVariable String id) {
-    	return certificateService.getCertificatesByPatientId(id);
+    @Tag(name = "📄 Certificate Endpoints", description = "Endpoints pour gérer et imprimer les certificats médicaux")
+    @Operation(
+            summary = "Lister les certificats d'un patient (résumés paginés)",
+            description = "Retourne les résumés des certificats du patient du plus récent au plus ancien. " +
+                         "Pour la page suivante, renvoyer la valeur de `nextCursor` dans le paramètre `cursor`.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page de certificats récupérée avec succès"),
+            @ApiResponse(responseCode = "400", description = "Curseur de pagination invalide"),
+            @ApiResponse(responseCode = "401", description = "Non authentifié")
+    })
+    public ResponseEntity<?> getPatientCertificates(
+            @Parameter(description = "ID du patient", required = true)
+            @PathVariable String id,
+            @Parameter(description = "Curseur renvoyé par la page précédente")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Taille de page (défaut 20, max 100)")
+            @RequestParam(required = false) Integer size) {
+        return getCertificatePage(id, cursor, size);
+    }
+    
+    private ResponseEntity<?> getCertificatePage(String patientId, String cursor, Integer size) {
+        try {
+            CursorPage<CertificateSummaryDTO> page =
+                    certificateService.getCertificateSummaries(patientId, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("error", "Paramètres de pagination invalides");
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
     }
 
     /**
@@ -74,7 +126,9 @@ public class CertificateController {
             description = "**👤 PATIENT** : Génère un PDF de votre certificat médical.\n\n" +
                          "**👨‍⚕️ PROVIDER** : Génère un PDF de n'importe quel certificat.\n\n" +
                          "Le PDF contient toutes les informations du certificat (patient, provider, contenu, dates). " +
-                         "Le fichier PDF peut être téléchargé ou imprimé.",
+                         "Le fichier PDF peut être téléchargé ou imprimé.\n\n" +
+                         "Le paramètre `mode=COMPACT` produit un PDF allégé (compression complète, logo réduit), " +
+                         "adapté aux connexions mobiles.",
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @ApiResponses(value = {
@@ -86,6 +140,8 @@ public class CertificateController {
     public ResponseEntity<?> printCertificate(
             @Parameter(description = "ID du certificat", required = true)
             @PathVariable String id,
+            @Parameter(description = "Mode de sortie du PDF (STANDARD ou COMPACT, défaut selon la configuration)")
+            @RequestParam(required = false) CertificatePdfService.OutputMode mode,
             @Parameter(hidden = true) Authentication authentication) {
         
         try {
@@ -118,15 +174,29 @@ public class CertificateController {
                 }
             }
             
-            // Générer le PDF
-            byte[] pdfBytes = certificatePdfService.generatePdf(certificate);
+            CertificatePdfService.OutputMode outputMode =
+                    mode != null ? mode : certificatePdfService.getDefaultOutputMode();
             
             // Préparer les headers pour le téléchargement
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_PDF);
             headers.setContentDispositionFormData("attachment", 
                     "certificat_" + certificate.getCertificateId() + ".pdf");
+            
+            // PDF pré-rendu : diffusé depuis GridFS sans nouveau rendu (requêtes Range gérées par Spring MVC)
+            Resource storedPdf = certificatePdfStorageService.findStoredPdf(certificate, outputMode);
+            if (storedPdf != null) {
+                headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+                log.info("✅ PDF pré-rendu envoyé pour le certificat : {}", certificate.getCertificateId());
+                return ResponseEntity.ok()
+                        .headers(headers)
+                        .body(storedPdf);
+            }
+            
+            // Sinon, générer le PDF à la demande
+            byte[] pdfBytes = certificatePdfService.generatePdf(certificate, outputMode);
             headers.setContentLength(pdfBytes.length);
+            certificatePdfStorageService.storeAsync(certificate, outputMode, pdfBytes);
             
             log.info("✅ PDF généré et envoyé pour le certificat : {}", certificate.getCertificateId());
             return ResponseEntity.ok()
@@ -1,5 +1,6 @@
 
 package com.request_service.controllers;
+import com.request_service.config.CachingJwtDecoder;
 import com.request_service.dto.PatientRequestMessageDTO;
 import com.request_service.services.PatientRequestService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -43,6 +44,8 @@ public class RequestController {
 
     private final PatientRequestService patientRequestService;
 
+    private final CachingJwtDecoder jwtDecoder;
+
     /**
      * Récupère les demandes d'un patient spécifique.
      * Endpoint accessible aux patients pour voir leurs propres demandes.
@@ -247,6 +250,24 @@ public class RequestController {
         return ResponseEntity.ok(requests);
     }
 
+    /**
+     * Retourne les métriques du cache des tokens JWT vérifiés.
+     * Réservé aux PROVIDER uniquement.
+     */
+    @GetMapping("/jwt-cache/metrics")
+    @PreAuthorize("hasRole('PROVIDER')")
+    @Tag(name = "👨‍⚕️ Provider Endpoints", description = "Endpoints réservés aux PROVIDERS pour gérer les demandes")
+    @Operation(
+            summary = "Métriques du cache des tokens JWT", 
+            description = "**👨‍⚕️ PROVIDER UNIQUEMENT**\n\n" +
+                         "Retourne le nombre de tokens vérifiés en cache, les succès et échecs de lecture, " +
+                         "le taux de succès et les évictions.",
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ResponseEntity<Map<String, Object>> getJwtCacheMetrics() {
+        return ResponseEntity.ok(jwtDecoder.snapshot());
+    }
+
     /**
      * Récupère une demande spécifique par son ID.
      * Réservé aux PROVIDER uniquement.
@@ -0,0 +1,48 @@
+package com.request_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Projection résumée d'un certificat pour les listes.
+ * 
+ * N'inclut pas le contenu détaillé ni le cas traité : le document complet
+ * reste accessible via GET /api/certificates/{id}.
+ * 
+ * @author Request-Service Team
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Résumé d'un certificat médical")
+public class CertificateSummaryDTO {
+
+    @Schema(description = "ID technique du certificat", example = "507f1f77bcf86cd799439011")
+    private String id;
+
+    @Schema(description = "Numéro du certificat", example = "CERT-2025-1A2B3C4D")
+    private String certificateNumber;
+
+    @Schema(description = "Type de certificat", example = "MEDICAL")
+    private String type;
+
+    @Schema(description = "Titre du certificat", example = "Certificat médical")
+    private String title;
+
+    @Schema(description = "Date d'émission", example = "2025-01-15")
+    private LocalDate issueDate;
+
+    @Schema(description = "Date d'expiration", example = "2025-12-31")
+    private LocalDate expiryDate;
+
+    @Schema(description = "Statut du certificat", example = "ACTIVE")
+    private String status;
+
+    @Schema(description = "Nom complet du médecin émetteur", example = "Jean Dupont")
+    private String providerName;
+}
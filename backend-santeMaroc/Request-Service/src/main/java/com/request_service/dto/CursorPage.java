@@ -0,0 +1,34 @@
+package com.request_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page de résultats paginée par curseur.
+ * 
+ * Le curseur est opaque pour le client : il suffit de le renvoyer tel quel
+ * dans le paramètre "cursor" pour obtenir la page suivante.
+ * 
+ * @param <T> Le type des éléments de la page
+ * @author Request-Service Team
+ * @version 1.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Page de résultats paginée par curseur")
+public class CursorPage<T> {
+
+    @Schema(description = "Éléments de la page")
+    private List<T> items;
+
+    @Schema(description = "Curseur de la page suivante (null s'il n'y a plus de résultats)")
+    private String nextCursor;
+
+    @Schema(description = "Indique s'il reste des résultats après cette page")
+    private boolean hasMore;
+}
@@ -3,8 +3,12 @@ package com.request_service.services;
 import com.itextpdf.io.image.ImageDataFactory;
 import com.itextpdf.kernel.colors.DeviceRgb;
 import com.itextpdf.kernel.geom.PageSize;
+import com.itextpdf.io.image.ImageData;
+import com.itextpdf.kernel.pdf.CompressionConstants;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
+import com.itextpdf.kernel.pdf.WriterProperties;
+import com.itextpdf.kernel.pdf.xobject.PdfImageXObject;
 import com.itextpdf.layout.Document;
 import com.itextpdf.layout.borders.Border;
 import com.itextpdf.layout.borders.SolidBorder;
@@ -19,12 +23,19 @@ import com.itextpdf.layout.properties.UnitValue;
 import com.request_service.models.Certificate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.function.UnaryOperator;
 
 /**
  * Service pour générer des PDF de certificats médicaux avec le style SehaMaroc.
@@ -45,20 +56,69 @@ public class CertificatePdfService {
     private static final DeviceRgb SEHA_DARK_BLUE = new DeviceRgb(0, 51, 102);     // Bleu foncé
     
     private static final Border THIN_BORDER = new SolidBorder(SEHA_BLUE, 0.5f);
+    
+    /** Largeur (en pixels) du logo pré-réduit en mode compact, ~2,5x la largeur affichée */
+    private static final int COMPACT_LOGO_WIDTH_PX = 160;
+
+    /**
+     * Mode de sortie du PDF.
+     * 
+     * STANDARD : rendu historique.
+     * COMPACT : compression complète (object streams), logo pré-réduit et embarqué une seule fois,
+     * pictogrammes emoji retirés (ils ne sont pas couverts par la police standard Helvetica).
+     */
+    public enum OutputMode {
+        STANDARD,
+        COMPACT
+    }
+
+    @Value("${certificate.pdf.output-mode:STANDARD}")
+    private OutputMode defaultOutputMode = OutputMode.STANDARD;
+    
+    /** Logo pré-réduit, calculé une seule fois (null tant qu'il n'est pas chargé) */
+    private volatile byte[] compactLogoBytes;
+    private volatile boolean compactLogoLoaded;
+
+    /**
+     * @return Le mode de sortie par défaut (propriété certificate.pdf.output-mode)
+     */
+    public OutputMode getDefaultOutputMode() {
+        return defaultOutputMode;
+    }
+
+    /**
+     * Génère un PDF pour un certificat médical dans le mode de sortie par défaut
+     * (propriété certificate.pdf.output-mode).
+     * 
+     * @param certificate Le certificat à convertir en PDF
+     * @return Le PDF sous forme de tableau d'octets
+     * @throws Exception Si une erreur survient lors de la génération
+     */
+    public byte[] generatePdf(Certificate certificate) throws Exception {
+        return generatePdf(certificate, defaultOutputMode);
+    }
 
     /**
      * Génère un PDF pour un certificat médical avec le style SehaMaroc.
      * Optimisé pour tenir sur une seule page A4.
      * 
      * @param certificate Le certificat à convertir en PDF
+     * @param mode Le mode de sortie (STANDARD ou COMPACT)
      * @return Le PDF sous forme de tableau d'octets
      * @throws Exception Si une erreur survient lors de la génération
      */
-    public byte[] generatePdf(Certificate certificate) throws Exception {
-        log.info("📄 Génération du PDF pour le certificat : {}", certificate.getCertificateId());
+    public byte[] generatePdf(Certificate certificate, OutputMode mode) throws Exception {
+        log.info("📄 Génération du PDF ({}) pour le certificat : {}", mode, certificate.getCertificateId());
+        
+        boolean compact = mode == OutputMode.COMPACT;
+        UnaryOperator<String> text = compact ? CertificatePdfService::stripEmoji : UnaryOperator.identity();
         
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
+        PdfWriter writer = compact
+                ? new PdfWriter(baos, new WriterProperties()
+                        .setFullCompressionMode(true)
+                        .setCompressionLevel(CompressionConstants.BEST_COMPRESSION))
+                : new PdfWriter(baos);
         PdfDocument pdf = new PdfDocument(writer);
         Document document = new Document(pdf, PageSize.A4);
         
@@ -68,6 +128,9 @@ public class CertificatePdfService {
         try {
             DateTimeFormatter shortFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy");
             
+            // En mode compact, le logo est embarqué une seule fois et partagé entre en-tête et pied de page
+            PdfImageXObject sharedLogo = compact ? loadCompactLogo() : null;
+            
             // ========== EN-TÊTE ULTRA-COMPACT AVEC LOGO ==========
             Div headerDiv = new Div()
                     .setBorderBottom(new SolidBorder(SEHA_BLUE, 2f))
@@ -87,7 +150,7 @@ public class CertificatePdfService {
                     .setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE)
                     .setPadding(3);
             
-            Image logo = loadLogo();
+            Image logo = compact ? (sharedLogo != null ? new Image(sharedLogo) : null) : loadLogo();
             if (logo != null) {
                 logo.setWidth(UnitValue.createPointValue(65));
                 logo.setAutoScale(true);
@@ -125,7 +188,7 @@ public class CertificatePdfService {
                     .setTextAlignment(TextAlignment.RIGHT);
             
             Paragraph title = new Paragraph(
-                    certificate.getTitle() != null ? certificate.getTitle().toUpperCase() : "CERTIFICAT MÉDICAL")
+                    text.apply(certificate.getTitle() != null ? certificate.getTitle().toUpperCase() : "CERTIFICAT MÉDICAL"))
                     .setFontSize(16)
                     .setBold()
                     .setFontColor(SEHA_BLUE)
@@ -157,7 +220,7 @@ public class CertificatePdfService {
                     .setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.TOP);
             
             // Informations du certificat
-            Paragraph certInfoTitle = new Paragraph("📋 INFORMATIONS")
+            Paragraph certInfoTitle = new Paragraph(text.apply("📋 INFORMATIONS"))
                     .setFontSize(9)
                     .setBold()
                     .setFontColor(SEHA_BLUE)
@@ -186,7 +249,7 @@ public class CertificatePdfService {
             }
             
             // Informations du médecin
-            Paragraph doctorTitle = new Paragraph("👨‍⚕️ MÉDECIN")
+            Paragraph doctorTitle = new Paragraph(text.apply("👨‍⚕️ MÉDECIN"))
                     .setFontSize(9)
                     .setBold()
                     .setFontColor(SEHA_BLUE)
@@ -227,7 +290,7 @@ public class CertificatePdfService {
                     .setBackgroundColor(SEHA_LIGHT_BLUE)
                     .setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.TOP);
             
-            Paragraph patientTitle = new Paragraph("👤 PATIENT")
+            Paragraph patientTitle = new Paragraph(text.apply("👤 PATIENT"))
                     .setFontSize(9)
                     .setBold()
                     .setFontColor(SEHA_BLUE)
@@ -274,14 +337,14 @@ public class CertificatePdfService {
                         .setBackgroundColor(SEHA_LIGHT_BLUE)
                         .setBorder(new SolidBorder(SEHA_BLUE, 1f));
                 
-                Paragraph caseTitle = new Paragraph("🔍 CAS TRAITÉ / DIAGNOSTIC")
+                Paragraph caseTitle = new Paragraph(text.apply("🔍 CAS TRAITÉ / DIAGNOSTIC"))
                         .setFontSize(9)
                         .setBold()
                         .setFontColor(SEHA_BLUE)
                         .setMarginBottom(3);
                 caseDiv.add(caseTitle);
                 
-                Paragraph casePara = new Paragraph(certificate.getCaseTreated())
+                Paragraph casePara = new Paragraph(text.apply(certificate.getCaseTreated()))
                         .setFontSize(9)
                         .setFontColor(SEHA_DARK_BLUE)
                         .setMarginBottom(0);
@@ -297,14 +360,14 @@ public class CertificatePdfService {
                         .setPadding(6)
                         .setBorder(THIN_BORDER);
                 
-                Paragraph contentTitle = new Paragraph("📝 DÉTAILS DU CERTIFICAT")
+                Paragraph contentTitle = new Paragraph(text.apply("📝 DÉTAILS DU CERTIFICAT"))
                         .setFontSize(9)
                         .setBold()
                         .setFontColor(SEHA_BLUE)
                         .setMarginBottom(3);
                 contentDiv.add(contentTitle);
                 
-                Paragraph contentPara = new Paragraph(certificate.getContent())
+                Paragraph contentPara = new Paragraph(text.apply(certificate.getContent()))
                         .setFontSize(8)
                         .setTextAlignment(TextAlignment.JUSTIFIED)
                         .setMarginBottom(0);
@@ -383,7 +446,7 @@ public class CertificatePdfService {
                         .setMarginBottom(3));
             }
             
-            Paragraph digitalNote = new Paragraph("✓ Certifié")
+            Paragraph digitalNote = new Paragraph(text.apply("✓ Certifié"))
                     .setFontSize(7)
                     .setFontColor(SEHA_GREEN)
                     .setBold();
@@ -431,7 +494,7 @@ public class CertificatePdfService {
                     .setTextAlignment(TextAlignment.RIGHT)
                     .setVerticalAlignment(com.itextpdf.layout.properties.VerticalAlignment.MIDDLE);
             
-            Image footerLogo = loadLogo();
+            Image footerLogo = compact ? (sharedLogo != null ? new Image(sharedLogo) : null) : loadLogo();
             if (footerLogo != null) {
                 footerLogo.setWidth(UnitValue.createPointValue(40));
                 footerLogo.setAutoScale(true);
@@ -474,6 +537,16 @@ public class CertificatePdfService {
      * @return L'image du logo ou null si non trouvé
      */
     private Image loadLogo() {
+        byte[] imageBytes = loadLogoBytes();
+        return imageBytes != null ? new Image(ImageDataFactory.create(imageBytes)) : null;
+    }
+
+    /**
+     * Lit les octets bruts du logo SehaMaroc depuis les ressources.
+     * 
+     * @return Les octets du fichier image ou null si non trouvé
+     */
+    private byte[] loadLogoBytes() {
         // Liste des chemins possibles pour le logo
         String[] logoPaths = {
             "static/sehamaroc-logo.png",
@@ -491,9 +564,8 @@ public class CertificatePdfService {
                 if (logoResource.exists() && logoResource.isReadable()) {
                     byte[] imageBytes = logoResource.getInputStream().readAllBytes();
                     if (imageBytes != null && imageBytes.length > 0) {
-                        Image logo = new Image(ImageDataFactory.create(imageBytes));
                         log.info("✅ Logo chargé depuis : {}", path);
-                        return logo;
+                        return imageBytes;
                     }
                 }
             } catch (Exception e) {
@@ -506,6 +578,109 @@ public class CertificatePdfService {
         return null;
     }
     
+    /**
+     * Charge le logo pré-réduit pour le mode compact.
+     * La réduction n'est faite qu'une fois ; chaque document crée ensuite un seul XObject image.
+     * 
+     * @return Le XObject image du logo ou null si non trouvé
+     */
+    private PdfImageXObject loadCompactLogo() {
+        if (!compactLogoLoaded) {
+            synchronized (this) {
+                if (!compactLogoLoaded) {
+                    compactLogoBytes = downscaleLogo();
+                    compactLogoLoaded = true;
+                }
+            }
+        }
+        if (compactLogoBytes == null) {
+            return null;
+        }
+        ImageData imageData = ImageDataFactory.create(compactLogoBytes);
+        return new PdfImageXObject(imageData);
+    }
+
+    /**
+     * Réduit le logo à COMPACT_LOGO_WIDTH_PX pixels de large.
+     * JPEG si le logo est opaque, PNG s'il a de la transparence.
+     * 
+     * @return Les octets du logo réduit, l'original s'il est déjà petit, ou null si absent
+     */
+    private byte[] downscaleLogo() {
+        byte[] originalBytes = loadLogoBytes();
+        if (originalBytes == null) {
+            return null;
+        }
+        
+        try {
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(originalBytes));
+            if (source == null) {
+                log.warn("⚠️ Logo illisible pour la réduction, utilisation de l'original");
+                return originalBytes;
+            }
+            if (source.getWidth() <= COMPACT_LOGO_WIDTH_PX) {
+                return originalBytes;
+            }
+            
+            boolean hasAlpha = source.getColorModel().hasAlpha();
+            int height = Math.max(1, source.getHeight() * COMPACT_LOGO_WIDTH_PX / source.getWidth());
+            BufferedImage scaled = new BufferedImage(COMPACT_LOGO_WIDTH_PX, height,
+                    hasAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(source, 0, 0, COMPACT_LOGO_WIDTH_PX, height, null);
+            } finally {
+                g.dispose();
+            }
+            
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(scaled, hasAlpha ? "png" : "jpg", out);
+            log.info("✅ Logo réduit pour le mode compact : {} → {} octets", originalBytes.length, out.size());
+            return out.toByteArray();
+        } catch (Exception e) {
+            log.warn("⚠️ Impossible de réduire le logo : {}", e.getMessage());
+            return originalBytes;
+        }
+    }
+
+    /**
+     * Retire les pictogrammes (emoji, symboles hors Latin-1, joiners) d'un texte,
+     * ainsi que les espaces qui les suivent ("📋 Titre" devient "Titre").
+     * Les autres espaces, dont l'indentation du texte saisi par le médecin, sont conservés.
+     * Helvetica ne couvre pas ces glyphes : ils s'affichent vides et alourdissent le rendu.
+     * 
+     * @param value Le texte source
+     * @return Le texte sans pictogrammes, ou null si value est null
+     */
+    static String stripEmoji(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        boolean afterPictogram = false;
+        for (int i = 0; i < value.length(); ) {
+            int cp = value.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isPictogram(cp)) {
+                afterPictogram = true;
+            } else if (!(afterPictogram && Character.isWhitespace(cp))) {
+                afterPictogram = false;
+                sb.appendCodePoint(cp);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isPictogram(int cp) {
+        if (cp == 0x200D || (cp >= 0xFE00 && cp <= 0xFE0F)) {
+            return true;
+        }
+        int type = Character.getType(cp);
+        return cp > 0xFF && (type == Character.OTHER_SYMBOL || type == Character.MODIFIER_SYMBOL);
+    }
+    
     /**
      * Construit le nom complet du médecin avec titre professionnel.
      * Format : "Dr. [Prénom] [Nom]" ou "[Titre] [Prénom] [Nom]"
@@ -0,0 +1,185 @@
+package com.request_service.services;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.request_service.config.AsyncConfig;
+import com.request_service.models.Certificate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.ZoneOffset;
+
+/**
+ * Service de stockage des PDF de certificats pré-rendus dans GridFS.
+ * 
+ * Quand le pré-rendu est activé (certificate.pdf.prerender.enabled=true), le PDF est généré
+ * en tâche de fond dès l'émission du certificat, puis servi tel quel à l'impression.
+ * Chaque fichier est identifié par l'ID du certificat, sa version (updatedAt) et le mode de sortie :
+ * une modification du certificat rend l'ancien fichier obsolète.
+ * 
+ * @author Request-Service Team
+ * @version 1.0
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CertificatePdfStorageService {
+
+    private static final String CONTENT_TYPE = "application/pdf";
+
+    private final GridFsTemplate gridFsTemplate;
+    private final CertificatePdfService certificatePdfService;
+
+    @Value("${certificate.pdf.prerender.enabled:false}")
+    private boolean prerenderEnabled;
+
+    /**
+     * @return true si le pré-rendu des PDF est activé
+     */
+    public boolean isPrerenderEnabled() {
+        return prerenderEnabled;
+    }
+
+    /**
+     * Génère et stocke en tâche de fond le PDF d'un certificat dans le mode par défaut.
+     * Sans effet si le pré-rendu est désactivé.
+     * 
+     * @param certificate Le certificat émis
+     */
+    @Async(AsyncConfig.CERTIFICATE_PDF_EXECUTOR)
+    public void prerender(Certificate certificate) {
+        if (!prerenderEnabled) {
+            return;
+        }
+        try {
+            CertificatePdfService.OutputMode mode = certificatePdfService.getDefaultOutputMode();
+            byte[] pdfBytes = certificatePdfService.generatePdf(certificate, mode);
+            store(certificate, mode, pdfBytes);
+        } catch (Exception e) {
+            log.warn("⚠️ Pré-rendu du PDF impossible pour le certificat {} : {}",
+                    certificate.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stocke en tâche de fond un PDF déjà généré (par exemple après un rendu à la demande).
+     * Sans effet si le pré-rendu est désactivé.
+     */
+    @Async(AsyncConfig.CERTIFICATE_PDF_EXECUTOR)
+    public void storeAsync(Certificate certificate, CertificatePdfService.OutputMode mode, byte[] pdfBytes) {
+        if (!prerenderEnabled) {
+            return;
+        }
+        try {
+            store(certificate, mode, pdfBytes);
+        } catch (Exception e) {
+            log.warn("⚠️ Stockage du PDF impossible pour le certificat {} : {}",
+                    certificate.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Stocke le PDF d'un certificat, en remplaçant les versions précédentes du même mode.
+     */
+    public void store(Certificate certificate, CertificatePdfService.OutputMode mode, byte[] pdfBytes) {
+        String version = versionOf(certificate);
+
+        gridFsTemplate.delete(new Query(Criteria.where("metadata.certificateId").is(certificate.getId())
+                .and("metadata.mode").is(mode.name())));
+
+        org.bson.Document metadata = new org.bson.Document()
+                .append("certificateId", certificate.getId())
+                .append("version", version)
+                .append("mode", mode.name());
+        String filename = "certificat_" + certificate.getCertificateId() + ".pdf";
+
+        gridFsTemplate.store(new ByteArrayInputStream(pdfBytes), filename, CONTENT_TYPE, metadata);
+        log.info("💾 PDF stocké dans GridFS pour le certificat {} (version {}, mode {}, {} octets)",
+                certificate.getId(), version, mode, pdfBytes.length);
+    }
+
+    /**
+     * Recherche le PDF stocké correspondant à la version courante du certificat.
+     * 
+     * @param certificate Le certificat
+     * @param mode Le mode de sortie souhaité
+     * @return Une ressource relisible (compatible avec les requêtes HTTP Range), ou null si absent
+     */
+    public Resource findStoredPdf(Certificate certificate, CertificatePdfService.OutputMode mode) {
+        if (!prerenderEnabled) {
+            return null;
+        }
+        try {
+            GridFSFile file = gridFsTemplate.findOne(new Query(
+                    Criteria.where("metadata.certificateId").is(certificate.getId())
+                            .and("metadata.version").is(versionOf(certificate))
+                            .and("metadata.mode").is(mode.name())));
+            return file != null ? new StoredPdfResource(gridFsTemplate, file) : null;
+        } catch (Exception e) {
+            log.warn("⚠️ Lecture GridFS impossible pour le certificat {} : {}",
+                    certificate.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Version d'un certificat : date de dernière modification en millisecondes
+     * (précision conservée par MongoDB).
+     */
+    private String versionOf(Certificate certificate) {
+        if (certificate.getUpdatedAt() == null) {
+            return "0";
+        }
+        return String.valueOf(certificate.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    /**
+     * Ressource GridFS relisible : chaque appel à getInputStream ouvre un nouveau flux de
+     * téléchargement, ce qui permet à Spring MVC de servir les requêtes Range (y compris multi-plages).
+     */
+    private static final class StoredPdfResource extends AbstractResource {
+
+        private final GridFsTemplate gridFsTemplate;
+        private final GridFSFile file;
+
+        private StoredPdfResource(GridFsTemplate gridFsTemplate, GridFSFile file) {
+            this.gridFsTemplate = gridFsTemplate;
+            this.file = file;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return gridFsTemplate.getResource(file).getInputStream();
+        }
+
+        @Override
+        public long contentLength() {
+            return file.getLength();
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFilename();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public String getDescription() {
+            return "GridFS PDF [" + file.getFilename() + "]";
+        }
+    }
+}
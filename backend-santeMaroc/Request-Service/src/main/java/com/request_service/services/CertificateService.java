@@ -1,13 +1,22 @@
 package com.request_service.services;
 
+import com.request_service.dto.CertificateSummaryDTO;
+import com.request_service.dto.CursorPage;
 import com.request_service.models.Certificate;
 import com.request_service.repository.CertificateRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -23,7 +32,15 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class CertificateService {
 
+    /** Taille de page par défaut pour les listes de certificats */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    
+    /** Taille de page maximale acceptée */
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final CertificateRepository certificateRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CertificatePdfStorageService certificatePdfStorageService;
     
 
     /**
@@ -68,6 +85,54 @@ public class CertificateService {
         return certificateRepository.findByProviderId(providerId);
     }
 
+    /**
+     * Récupère une page de résumés de certificats, du plus récent au plus ancien.
+     * 
+     * La pagination se fait par curseur sur l'_id (keyset) : le coût d'une page ne
+     * dépend pas de sa position dans la liste. Seuls les champs du résumé sont lus
+     * depuis MongoDB (ni le contenu ni le cas traité).
+     * 
+     * @param patientId L'ID du patient (null pour tous les certificats)
+     * @param cursor Le curseur renvoyé par la page précédente (null pour la première page)
+     * @param size La taille de page souhaitée
+     * @return La page de résumés
+     * @throws IllegalArgumentException Si le curseur est invalide
+     */
+    public CursorPage<CertificateSummaryDTO> getCertificateSummaries(String patientId, String cursor, Integer size) {
+        int pageSize = normalizePageSize(size);
+        
+        Criteria criteria = new Criteria();
+        if (patientId != null && !patientId.isEmpty()) {
+            criteria.and("patientId").is(patientId);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            criteria.and("_id").lt(decodeCursor(cursor));
+        }
+        
+        Query query = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(pageSize + 1);
+        query.fields()
+                .include("certificateNumber", "type", "title", "issueDate",
+                        "expiryDate", "status", "providerName");
+        
+        List<Certificate> certificates = mongoTemplate.find(query, Certificate.class);
+        
+        boolean hasMore = certificates.size() > pageSize;
+        if (hasMore) {
+            certificates = certificates.subList(0, pageSize);
+        }
+        
+        List<CertificateSummaryDTO> items = certificates.stream()
+                .map(this::toSummary)
+                .toList();
+        
+        String nextCursor = hasMore ? encodeCursor(certificates.get(certificates.size() - 1).getId()) : null;
+        
+        log.debug("📄 {} certificat(s) retourné(s) (patient={}, hasMore={})", items.size(), patientId, hasMore);
+        return new CursorPage<>(items, nextCursor, hasMore);
+    }
+
     /**
      * Crée un nouveau certificat.
      * 
@@ -100,8 +165,51 @@ public class CertificateService {
         Certificate saved = certificateRepository.save(certificate);
         log.info("✅ Certificat créé : {} (Numéro: {})", saved.getCertificateId(), saved.getCertificateNumber());
         
+        // Pré-rendu asynchrone du PDF (sans effet si désactivé)
+        certificatePdfStorageService.prerender(saved);
+        
         return saved;
     }
-}
 
+    /**
+     * Convertit un certificat (éventuellement partiel) en résumé.
+     */
+    private CertificateSummaryDTO toSummary(Certificate certificate) {
+        return new CertificateSummaryDTO(
+                certificate.getId(),
+                certificate.getCertificateNumber(),
+                certificate.getType(),
+                certificate.getTitle(),
+                certificate.getIssueDate(),
+                certificate.getExpiryDate(),
+                certificate.getStatus(),
+                certificate.getProviderName());
+    }
+
+    /**
+     * Borne la taille de page demandée entre 1 et MAX_PAGE_SIZE.
+     */
+    private int normalizePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private String encodeCursor(String id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(id.getBytes(StandardCharsets.UTF_8));
+    }
 
+    private ObjectId decodeCursor(String cursor) {
+        try {
+            String id = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (ObjectId.isValid(id)) {
+                return new ObjectId(id);
+            }
+        } catch (IllegalArgumentException e) {
+            // Traité ci-dessous
+        }
+        throw new IllegalArgumentException("Curseur de pagination invalide : " + cursor);
+    }
+}
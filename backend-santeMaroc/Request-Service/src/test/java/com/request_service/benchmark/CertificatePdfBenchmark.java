@@ -0,0 +1,77 @@
+package com.request_service.benchmark;
+
+import com.request_service.models.Certificate;
+import com.request_service.services.CertificatePdfService;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Benchmark du rendu PDF des certificats : taille en octets et temps de rendu par mode.
+ * 
+ * Ce n'est pas un test JUnit (il n'est pas exécuté par "mvn test"). Pour le lancer :
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.request_service.benchmark.CertificatePdfBenchmark
+ * </pre>
+ * 
+ * @author Request-Service Team
+ * @version 1.0
+ */
+public class CertificatePdfBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    public static void main(String[] args) throws Exception {
+        CertificatePdfService service = new CertificatePdfService();
+        Certificate certificate = sampleCertificate();
+
+        System.out.printf("%-10s %12s %16s%n", "Mode", "Octets/PDF", "Rendu moyen (ms)");
+        for (CertificatePdfService.OutputMode mode : CertificatePdfService.OutputMode.values()) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                service.generatePdf(certificate, mode);
+            }
+
+            long totalBytes = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+                totalBytes += service.generatePdf(certificate, mode).length;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            System.out.printf("%-10s %12d %16.3f%n", mode,
+                    totalBytes / MEASURED_ITERATIONS,
+                    elapsed / 1_000_000.0 / MEASURED_ITERATIONS);
+        }
+    }
+
+    private static Certificate sampleCertificate() {
+        Certificate certificate = new Certificate();
+        certificate.setId("507f1f77bcf86cd799439011");
+        certificate.setCertificateId("CERT-2025-1A2B3C4D");
+        certificate.setCertificateNumber("CERT-2025-1A2B3C4D");
+        certificate.setPatientId("507f1f77bcf86cd799439012");
+        certificate.setPatientName("Amina El Idrissi");
+        certificate.setPatientFirstName("Amina");
+        certificate.setPatientLastName("El Idrissi");
+        certificate.setPatientEmail("amina.elidrissi@example.com");
+        certificate.setProviderId("507f1f77bcf86cd799439013");
+        certificate.setProviderName("Youssef Benali");
+        certificate.setProviderFirstName("Youssef");
+        certificate.setProviderLastName("Benali");
+        certificate.setProviderProfessionalTitle("Dr");
+        certificate.setType("MEDICAL");
+        certificate.setTitle("Certificat médical");
+        certificate.setCaseTreated("Grippe avec arrêt de travail de 3 jours 🤒");
+        certificate.setContent("Je soussigné certifie que le patient a été examiné ce jour et que son état "
+                + "de santé nécessite un arrêt de travail de trois jours, prolongeable selon l'évolution. ".repeat(4));
+        certificate.setIssueDate(LocalDate.now());
+        certificate.setExpiryDate(LocalDate.now().plusDays(3));
+        certificate.setSignature("Dr. Youssef Benali");
+        certificate.setStatus("ACTIVE");
+        certificate.setCreatedAt(LocalDateTime.now());
+        certificate.setUpdatedAt(LocalDateTime.now());
+        return certificate;
+    }
+}
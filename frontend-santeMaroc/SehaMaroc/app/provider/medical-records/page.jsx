@@ -32,6 +32,7 @@ import { useLanguage } from "@/contexts/LanguageContext"
 import { Search, Plus, Eye, Edit, Trash2, Loader2 } from "lucide-react"
 
 const API_BASE_URL = "http://localhost:8080/api"
+const RECORDS_PAGE_SIZE = 100 // maximum page size accepted by GET /records
 
 export default function MedicalRecordsPage() {
   const { lang, t } = useLanguage()
@@ -74,13 +75,11 @@ export default function MedicalRecordsPage() {
       const token = localStorage.getItem("token")
       
       // Fetch assigned patients and all records in parallel
-      const [patientsRes, recordsRes] = await Promise.all([
+      const [patientsRes, recordsData] = await Promise.all([
         fetch(`${API_BASE_URL}/providers/patients/assigned`, {
           headers: { Authorization: `Bearer ${token}` }
         }),
-        fetch(`${API_BASE_URL}/records`, {
-          headers: { Authorization: `Bearer ${token}` }
-        })
+        fetchAllRecords(token)
       ])
 
       if (patientsRes.ok) {
@@ -88,8 +87,7 @@ export default function MedicalRecordsPage() {
         setAssignedPatients(patientsData)
       }
 
-      if (recordsRes.ok) {
-        const recordsData = await recordsRes.json()
+      if (recordsData) {
         setRecords(recordsData)
       }
     } catch (error) {
@@ -104,6 +102,24 @@ export default function MedicalRecordsPage() {
     }
   }
 
+  // GET /records is cursor-paginated ({ items, nextCursor }): follow nextCursor up to the last page
+  const fetchAllRecords = async (token) => {
+    const allRecords = []
+    let cursor = null
+    do {
+      const params = new URLSearchParams({ size: String(RECORDS_PAGE_SIZE) })
+      if (cursor) params.set("cursor", cursor)
+      const response = await fetch(`${API_BASE_URL}/records?${params}`, {
+        headers: { Authorization: `Bearer ${token}` }
+      })
+      if (!response.ok) return null
+      const page = await response.json()
+      allRecords.push(...(page.items || []))
+      cursor = page.nextCursor
+    } while (cursor)
+    return allRecords
+  }
+
   const generateRecordId = () => {
     return 'REC-' + Date.now() + '-' + Math.random().toString(36).substr(2, 6).toUpperCase()
   }